@@ -1,11 +1,17 @@
 package com.puppet.pcore;
 
 import com.puppet.pcore.impl.PcoreImpl;
+import com.puppet.pcore.impl.TypeResolutionCache;
 import com.puppet.pcore.impl.loader.ParentedLoader;
+import com.puppet.pcore.impl.types.AssignabilityCache;
 import com.puppet.pcore.impl.types.TypeSetType;
 import com.puppet.pcore.loader.Loader;
 import com.puppet.pcore.serialization.SerializationFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
 /**
  * Provides access to relevant parts of the Pcore Type system.
  */
@@ -18,12 +24,90 @@ public abstract class Pcore {
 		return new PcoreImpl(new ParentedLoader(staticPcore().loader()), failWhenUnresolved);
 	}
 
+	/**
+	 * Creates a pcore from a snapshot that was written using {@link #writeSnapshot(OutputStream)}. The file is
+	 * mapped into memory and its types are not read until the first time something is looked up in the loader
+	 * of the returned pcore.
+	 *
+	 * @param snapshot path to the snapshot file
+	 * @return the new pcore
+	 * @throws IOException if the file cannot be mapped or isn't a valid snapshot
+	 */
+	public static Pcore fromSnapshot(Path snapshot) throws IOException {
+		return fromSnapshot(snapshot, false);
+	}
+
+	/**
+	 * Creates a pcore from a snapshot that was written using {@link #writeSnapshot(OutputStream)}. The file is
+	 * mapped into memory when this method is called, but only its header is checked. The types are read the
+	 * first time something is looked up in the loader of the returned pcore. A snapshot that turns out to be
+	 * corrupt at that point causes the lookup to fail with an unchecked exception.
+	 *
+	 * @param snapshot path to the snapshot file
+	 * @param failWhenUnresolved {@code true} if resolving a type string that references an unknown type should
+	 *                           throw an exception rather than return a type reference, the same as for
+	 *                           {@link #create(boolean)}
+	 * @return the new pcore
+	 * @throws IOException if the file cannot be opened or mapped, if it doesn't start with the snapshot magic
+	 *                     number, or if it was written using an unsupported snapshot version
+	 */
+	public static Pcore fromSnapshot(Path snapshot, boolean failWhenUnresolved) throws IOException {
+		return PcoreImpl.fromSnapshot(snapshot, failWhenUnresolved);
+	}
+
 	public static Pcore staticPcore() {
 		return PcoreImpl.staticInstance();
 	}
 
+	/**
+	 * Returns the cache used for assignability checks on types loaded by this pcore or {@code null} if
+	 * no such cache has been enabled.
+	 *
+	 * @return the cache or {@code null}
+	 */
+	public abstract AssignabilityCache assignabilityCache();
+
+	/**
+	 * Enables a bounded cache of assignability results for types loaded by this pcore. The pcore
+	 * must be frozen.
+	 *
+	 * @param maxEntries the maximum number of cached results
+	 * @throws IllegalStateException if this pcore is not frozen
+	 */
+	public abstract void enableAssignabilityCache(int maxEntries);
+
+	/**
+	 * Returns the cache used when resolving type strings in this pcore or {@code null} if no such cache
+	 * has been enabled.
+	 *
+	 * @return the cache or {@code null}
+	 */
+	public abstract TypeResolutionCache typeResolutionCache();
+
+	/**
+	 * Enables a bounded cache of the results of resolving type strings in this pcore. The cache is shared
+	 * with pcore instances that are created by {@link #withLocalScope()} and {@link #withTypeSetScope(TypeSetType)}
+	 * after this call.
+	 *
+	 * @param maxEntries the maximum number of cached results
+	 */
+	public abstract void enableTypeResolutionCache(int maxEntries);
+
 	public abstract boolean failWhenUnresolved();
 
+	/**
+	 * Makes type sets that are resolved in this pcore, or in pcore instances that are created by
+	 * {@link #withLocalScope()} and {@link #withTypeSetScope(TypeSetType)} after this call, resolve their
+	 * types on first access rather than when the type set itself is resolved. Types that are never accessed
+	 * are never evaluated.
+	 */
+	public abstract void enableLazyTypeSets();
+
+	/**
+	 * @return {@code true} if type sets resolved in this pcore resolve their types on first access
+	 */
+	public abstract boolean lazyTypeSets();
+
 	/**
 	 * Prevent further modifications to this pcore instance
 	 */
@@ -37,11 +121,57 @@ public abstract class Pcore {
 
 	public abstract Type inferSet(Object value);
 
+	/**
+	 * Infers the type of the given value using at most <code>sampleSize</code> elements of each collection
+	 * when inferring the type of its elements. The cost of inferring the type of a very large collection is
+	 * hence bounded but the resulting element type only describes the sampled elements.
+	 *
+	 * @param value      the value to infer a type for
+	 * @param sampleSize the maximum number of elements to infer from each collection
+	 * @return the inferred type
+	 */
+	public abstract Type infer(Object value, int sampleSize);
+
+	/**
+	 * Like {@link #inferSet(Object)} but collections with more than <code>sampleSize</code> elements
+	 * are inferred in the same way as by {@link #infer(Object, int)}.
+	 *
+	 * @param value      the value to infer a type for
+	 * @param sampleSize the maximum number of elements to infer from each collection
+	 * @return the inferred type
+	 */
+	public abstract Type inferSet(Object value, int sampleSize);
+
 	public abstract SerializationFactory serializationFactory(String serializationFormat);
 
+	/**
+	 * Writes everything that is bound in the loader of this pcore, not including its parent loaders, in resolved
+	 * form to a binary snapshot. A pcore with the same types can then be created using {@link #fromSnapshot(Path)}.
+	 *
+	 * @param out the stream to write the snapshot to
+	 * @throws IOException propagated from the stream
+	 */
+	public abstract void writeSnapshot(OutputStream out) throws IOException;
+
 	public abstract TypeEvaluator typeEvaluator();
 
+	/**
+	 * Creates a pcore with a loader that is parented by the loader of this pcore. Things bound in the new pcore are
+	 * not visible in this pcore. A scope that has been recycled using {@link #recycle()} is reused when available.
+	 *
+	 * @return the new pcore
+	 */
 	public abstract Pcore withLocalScope();
 
+	/**
+	 * Returns a pcore that was created by {@link #withLocalScope()} to the pcore that created it so that it can be
+	 * reused by a later call to that method. Everything bound in the scope is removed. Neither the scope nor any type
+	 * declared in it may be used after this call. Calling this method on a pcore that isn't a local scope has no
+	 * effect.
+	 *
+	 * @throws IllegalStateException if the scope has already been recycled
+	 */
+	public abstract void recycle();
+
 	public abstract Pcore withTypeSetScope(TypeSetType typeSet);
 }
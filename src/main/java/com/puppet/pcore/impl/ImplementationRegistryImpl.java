@@ -8,31 +8,72 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
 public class ImplementationRegistryImpl implements ImplementationRegistry {
+	/**
+	 * Used in place of {@code null} in maps that don't permit null values
+	 */
+	private static final String NO_MAPPING = new String();
+
+	/**
+	 * The creator and attribute provider for one type name, with the registrations of the parent chain merged in
+	 */
+	private static final class Registration {
+		final FactoryDispatcher<?> creator;
+		final Function<?,?> attributeProvider;
+
+		Registration(FactoryDispatcher<?> creator, Function<?,?> attributeProvider) {
+			this.creator = creator;
+			this.attributeProvider = attributeProvider;
+		}
+	}
 
-	private boolean frozen = false;
+	private volatile boolean frozen = false;
 	private final ImplementationRegistryImpl parent;
 	private final Map<String,Function<?,?>> attributeProviderPerType = new HashMap<>();
 	private final Map<String,FactoryDispatcher<?>> creatorPerType = new HashMap<>();
 	private final List<PatternSubstitution> implNameSubstitutions = new ArrayList<>();
-	private final Map<String,String> implNamesPerType = new HashMap<>();
+	private final Map<String,String> implNamesPerType = new ConcurrentHashMap<>();
 	private final List<PatternSubstitution> typeNameSubstitutions = new ArrayList<>();
-	private final Map<String,String> typeNamesPerImpl = new HashMap<>();
+	private final Map<String,String> typeNamesPerImpl = new ConcurrentHashMap<>();
+
+	/**
+	 * Registrations of this registry and all its parents per type name. Created by {@link #freeze()}.
+	 */
+	private volatile Map<String,Registration> flattened;
 
 	ImplementationRegistryImpl(ImplementationRegistryImpl parent) {
 		this.parent = parent;
 	}
 
-	public void freeze() {
+	/**
+	 * Prevent further registrations. Unless the parent registry is still modifiable, this will also merge all
+	 * registrations of the parent chain into a structure that is looked up without locks and without consulting
+	 * the parents.
+	 */
+	public synchronized void freeze() {
+		if(frozen)
+			return;
 		frozen = true;
+		if(parent == null || parent.frozen) {
+			Map<String,Registration> all = new HashMap<>();
+			collectRegistrations(all);
+			flattened = all;
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> Function<T,Object[]> attributeProviderFor(Type type) {
+		Map<String,Registration> all = flattened;
+		if(all != null) {
+			Registration registration = all.get(type.name());
+			return registration == null ? null : (Function<T,Object[]>)registration.attributeProvider;
+		}
+
 		Function<T,Object[]> provider = null;
 		if(parent != null)
 			provider = parent.attributeProviderFor(type);
@@ -42,12 +83,42 @@ public class ImplementationRegistryImpl implements ImplementationRegistry {
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> FactoryDispatcherImpl<T> creatorFor(Type type) {
+		Map<String,Registration> all = flattened;
+		if(all != null) {
+			Registration registration = all.get(type.name());
+			return registration == null ? null : (FactoryDispatcherImpl<T>)registration.creator;
+		}
+
 		FactoryDispatcherImpl<T> creator = null;
 		if(parent != null)
 			creator = parent.creatorFor(type);
 		return creator == null ? (FactoryDispatcherImpl<T>)creatorPerType.get(type.name()) : creator;
 	}
 
+	/**
+	 * Returns the name of the implementation that the given type name maps to according to the registered
+	 * pattern mappings.
+	 *
+	 * @param typeName the name of the type
+	 * @return the implementation name or {@code null} if no mapping exists
+	 */
+	public String implNameForType(String typeName) {
+		String found = parent == null ? null : parent.implNameForType(typeName);
+		return found == null ? findMapping(typeName, implNamesPerType, typeNameSubstitutions) : found;
+	}
+
+	/**
+	 * Returns the name of the type that the given implementation name maps to according to the registered
+	 * pattern mappings.
+	 *
+	 * @param implName the name of the implementation
+	 * @return the type name or {@code null} if no mapping exists
+	 */
+	public String typeNameForImpl(String implName) {
+		String found = parent == null ? null : parent.typeNameForImpl(implName);
+		return found == null ? findMapping(implName, typeNamesPerImpl, implNameSubstitutions) : found;
+	}
+
 	@Override
 	public <T> void registerImplementation(Type type, FactoryDispatcher<T> creator, Function<T, Object[]> attributeProvider) {
 		registerImplementation(type.name(), creator, attributeProvider);
@@ -70,8 +141,14 @@ public class ImplementationRegistryImpl implements ImplementationRegistry {
 	@Override
 	public void registerPatternMapping(PatternSubstitution typeNameSubst, PatternSubstitution implNameSubst) {
 		assertModifiable();
-		typeNameSubstitutions.add(typeNameSubst);
-		implNameSubstitutions.add(implNameSubst);
+		synchronized(typeNameSubstitutions) {
+			typeNameSubstitutions.add(typeNameSubst);
+			implNamesPerType.clear();
+		}
+		synchronized(implNameSubstitutions) {
+			implNameSubstitutions.add(implNameSubst);
+			typeNamesPerImpl.clear();
+		}
 	}
 
 	@Override
@@ -84,23 +161,38 @@ public class ImplementationRegistryImpl implements ImplementationRegistry {
 		registerPatternMapping(substitution, new PatternSubstitution(rt.pattern.pattern(), rt.name));
 	}
 
-	@SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
+	private void collectRegistrations(Map<String,Registration> all) {
+		if(parent != null)
+			parent.collectRegistrations(all);
+		for(Map.Entry<String,FactoryDispatcher<?>> entry : creatorPerType.entrySet()) {
+			Registration prev = all.get(entry.getKey());
+			if(prev == null)
+				all.put(entry.getKey(), new Registration(entry.getValue(), attributeProviderPerType.get(entry.getKey())));
+			else if(prev.creator == null || prev.attributeProvider == null)
+				all.put(entry.getKey(), new Registration(
+						prev.creator == null ? entry.getValue() : prev.creator,
+						prev.attributeProvider == null ? attributeProviderPerType.get(entry.getKey()) : prev.attributeProvider));
+		}
+	}
+
 	private String findMapping(String name, Map<String,String> names, List<PatternSubstitution> substitutions) {
-		synchronized(names) {
-			String found = names.get(name);
-			if(found != null || names.containsKey(name))
-				return found;
-
-			for(PatternSubstitution subst : substitutions) {
-				String substituted = subst.replaceIn(name);
-				if(substituted != null) {
-					names.put(name, substituted);
-					return substituted;
+		String found = names.get(name);
+		if(found == null) {
+			found = NO_MAPPING;
+			// The result is stored while holding the lock. A pattern mapping registered concurrently will then
+			// either be seen by the lookup or clear the stored result
+			synchronized(substitutions) {
+				for(PatternSubstitution subst : substitutions) {
+					String substituted = subst.replaceIn(name);
+					if(substituted != null) {
+						found = substituted;
+						break;
+					}
 				}
+				names.put(name, found);
 			}
-			names.put(name, null);
-			return null;
 		}
+		return found == NO_MAPPING ? null : found;
 	}
 
 	private void assertModifiable() {
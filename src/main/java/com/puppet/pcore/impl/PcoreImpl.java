@@ -13,7 +13,12 @@ import com.puppet.pcore.loader.Loader;
 import com.puppet.pcore.loader.TypedName;
 import com.puppet.pcore.serialization.SerializationFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static com.puppet.pcore.impl.Constants.*;
@@ -24,9 +29,33 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 
 public class PcoreImpl extends Pcore {
-	public final ImplementationRegistryImpl implementationRegistry;
+	/**
+	 * Scopes that have been recycled and can be handed out again by {@link #withLocalScope()}
+	 */
+	private static final class ScopePool {
+		private static final int MAX_SIZE = 64;
+
+		private final Queue<PcoreImpl> scopes = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger size = new AtomicInteger();
+
+		void offer(PcoreImpl scope) {
+			if(size.incrementAndGet() > MAX_SIZE)
+				size.decrementAndGet();
+			else
+				scopes.offer(scope);
+		}
+
+		PcoreImpl poll() {
+			PcoreImpl scope = scopes.poll();
+			if(scope != null) {
+				size.decrementAndGet();
+				scope.recycled = false;
+			}
+			return scope;
+		}
+	}
+
 	public final Loader loader;
-	public final TypeEvaluatorImpl typeEvaluator;
 	public final AnyType data;
 	public final AnyType richDataKey;
 	public final AnyType richData;
@@ -34,8 +63,22 @@ public class PcoreImpl extends Pcore {
 	public final ObjectType error;
 	public final boolean failWhenUnresolved;
 
+	private final PcoreImpl scopeParent;
+	private volatile ImplementationRegistryImpl implementationRegistry;
+	private volatile TypeEvaluatorImpl typeEvaluator;
+	private volatile ScopePool scopePool;
+	private volatile boolean recycled;
+	private volatile boolean frozen;
+	private volatile AssignabilityCache assignabilityCache;
+	private volatile TypeResolutionCache typeResolutionCache;
+	private volatile boolean lazyTypeSets;
+
 	private static PcoreImpl staticPcoreInstance = null;
 
+	// Shared so that the sessions that the factories keep per thread are reused
+	private static final SerializationFactory msgPackSerializationFactory = new MsgPackSerializationFactory();
+	private static final SerializationFactory jsonSerializationFactory = new JsonSerializationFactory();
+
 	static {
 		new PcoreImpl();
 	}
@@ -44,9 +87,14 @@ public class PcoreImpl extends Pcore {
 		return staticPcoreInstance;
 	}
 
+	public static PcoreImpl fromSnapshot(Path snapshot, boolean failWhenUnresolved) throws IOException {
+		return PcoreSnapshot.boot(snapshot, failWhenUnresolved);
+	}
+
 	// Private constructor. Only used when staticPcore is initialized
 	private PcoreImpl() {
 		staticPcoreInstance = this;
+		scopeParent = null;
 		try {
 			loader = new BasicLoader();
 			implementationRegistry = new ImplementationRegistryImpl(null);
@@ -103,11 +151,15 @@ public class PcoreImpl extends Pcore {
 	}
 
 	public PcoreImpl(Loader loader, boolean failWhenUnresolved) {
+		this(loader, failWhenUnresolved, null);
+	}
+
+	// The implementation registry and the type evaluator are created on demand so that short lived scopes that
+	// never use them are cheap
+	private PcoreImpl(Loader loader, boolean failWhenUnresolved, PcoreImpl scopeParent) {
 		this.loader = loader;
 		this.failWhenUnresolved = failWhenUnresolved;
-
-		implementationRegistry = new ImplementationRegistryImpl(staticPcoreInstance.implementationRegistry);
-		typeEvaluator = new TypeEvaluatorImpl(this);
+		this.scopeParent = scopeParent;
 		data = staticPcoreInstance.data;
 		richDataKey = staticPcoreInstance.richDataKey;
 		richData = staticPcoreInstance.richData;
@@ -120,19 +172,57 @@ public class PcoreImpl extends Pcore {
 		return createObjectType(typeName, parentName, emptyMap());
 	}
 
+	@Override
+	public AssignabilityCache assignabilityCache() {
+		return assignabilityCache;
+	}
+
+	@Override
+	public void enableAssignabilityCache(int maxEntries) {
+		if(!frozen)
+			throw new IllegalStateException("Assignability cache can only be enabled on a frozen Pcore");
+		assignabilityCache = new AssignabilityCache(maxEntries);
+	}
+
+	@Override
+	public TypeResolutionCache typeResolutionCache() {
+		return typeResolutionCache;
+	}
+
+	@Override
+	public void enableTypeResolutionCache(int maxEntries) {
+		typeResolutionCache = new TypeResolutionCache(maxEntries);
+	}
+
 	@Override
 	public boolean failWhenUnresolved() {
 		return failWhenUnresolved;
 	}
 
+	@Override
+	public void enableLazyTypeSets() {
+		lazyTypeSets = true;
+	}
+
+	@Override
+	public boolean lazyTypeSets() {
+		return lazyTypeSets;
+	}
+
+	@Override
+	public void writeSnapshot(OutputStream out) throws IOException {
+		PcoreSnapshot.write(this, out);
+	}
+
 	@Override
 	public void freeze() {
-		implementationRegistry.freeze(); // Static Pcore is always frozen
+		implementationRegistry().freeze(); // Static Pcore is always frozen
 		loader.freeze();
+		frozen = true;
 	}
 
 	public <T> void registerImpl(ObjectType type, FactoryDispatcher<T> creator, Function<T,Object[]> attributeSupplier) {
-		implementationRegistry.registerImplementation(type, creator, attributeSupplier);
+		implementationRegistry().registerImplementation(type, creator, attributeSupplier);
 	}
 
 	public <T> void registerImpl(ObjectType type, FactoryDispatcher<T> creator) {
@@ -169,7 +259,7 @@ public class PcoreImpl extends Pcore {
 		if(!serialization.isEmpty())
 			initHash.put(KEY_SERIALIZATION, serialization);
 		ObjectType type = objectType(initHash);
-		loader().bind(new TypedName("type", typeName), type);
+		loader().bind(TypedName.of("type", typeName), type);
 		return type;
 	}
 
@@ -179,13 +269,41 @@ public class PcoreImpl extends Pcore {
 	}
 
 	@Override
-	public ImplementationRegistry implementationRegistry() {
-		return implementationRegistry;
+	public ImplementationRegistryImpl implementationRegistry() {
+		ImplementationRegistryImpl ir = implementationRegistry;
+		if(ir == null) {
+			synchronized(this) {
+				ir = implementationRegistry;
+				if(ir == null)
+					implementationRegistry = ir = new ImplementationRegistryImpl(staticPcoreInstance.implementationRegistry);
+			}
+		}
+		return ir;
 	}
 
 	@Override
 	public Pcore withLocalScope() {
-		return new PcoreImpl(new ParentedLoader(loader), failWhenUnresolved);
+		ScopePool pool = scopePool;
+		PcoreImpl scoped = pool == null ? null : pool.poll();
+		return scoped == null ? withScope(new ParentedLoader(loader)) : inheritSettings(scoped);
+	}
+
+	@Override
+	public void recycle() {
+		PcoreImpl parent = scopeParent;
+		if(parent == null || loader.getClass() != ParentedLoader.class)
+			return;
+
+		synchronized(this) {
+			if(recycled)
+				throw new IllegalStateException("Attempt to recycle a scope that has already been recycled");
+			recycled = true;
+			((ParentedLoader)loader).reset();
+			implementationRegistry = null;
+			assignabilityCache = null;
+			frozen = false;
+		}
+		parent.scopePool().offer(this);
 	}
 
 	/**
@@ -197,7 +315,30 @@ public class PcoreImpl extends Pcore {
 	 */
 	@Override
 	public Pcore withTypeSetScope(TypeSetType typeSet) {
-		return new PcoreImpl(new TypeSetLoader(loader, typeSet), failWhenUnresolved);
+		return withScope(new TypeSetLoader(loader, typeSet));
+	}
+
+	private PcoreImpl withScope(Loader scopeLoader) {
+		return inheritSettings(new PcoreImpl(scopeLoader, failWhenUnresolved, this));
+	}
+
+	private PcoreImpl inheritSettings(PcoreImpl scoped) {
+		// The cache is keyed by loader so it can be shared with all scopes
+		scoped.typeResolutionCache = typeResolutionCache;
+		scoped.lazyTypeSets = lazyTypeSets;
+		return scoped;
+	}
+
+	private ScopePool scopePool() {
+		ScopePool pool = scopePool;
+		if(pool == null) {
+			synchronized(this) {
+				pool = scopePool;
+				if(pool == null)
+					scopePool = pool = new ScopePool();
+			}
+		}
+		return pool;
 	}
 
 	@Override
@@ -210,20 +351,38 @@ public class PcoreImpl extends Pcore {
 		return TypeFactory.inferSet(value);
 	}
 
+	@Override
+	public Type infer(Object value, int sampleSize) {
+		return TypeFactory.infer(value, sampleSize);
+	}
+
+	@Override
+	public Type inferSet(Object value, int sampleSize) {
+		return TypeFactory.inferSet(value, sampleSize);
+	}
+
 	@Override
 	public SerializationFactory serializationFactory(String serializationFormat) {
 		switch(serializationFormat) {
 		case SerializationFactory.MSGPACK:
-			return new MsgPackSerializationFactory();
+			return msgPackSerializationFactory;
 		case SerializationFactory.JSON:
-			return new JsonSerializationFactory();
+			return jsonSerializationFactory;
 		default:
 			throw new SerializationException(format("Unknown serialization format '%s'", serializationFormat));
 		}
 	}
 
 	@Override
-	public TypeEvaluator typeEvaluator() {
-		return typeEvaluator;
+	public TypeEvaluatorImpl typeEvaluator() {
+		TypeEvaluatorImpl te = typeEvaluator;
+		if(te == null) {
+			synchronized(this) {
+				te = typeEvaluator;
+				if(te == null)
+					typeEvaluator = te = new TypeEvaluatorImpl(this);
+			}
+		}
+		return te;
 	}
 }
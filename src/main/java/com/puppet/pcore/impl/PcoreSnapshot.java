@@ -0,0 +1,143 @@
+package com.puppet.pcore.impl;
+
+import com.puppet.pcore.PcoreException;
+import com.puppet.pcore.impl.loader.BasicLoader;
+import com.puppet.pcore.impl.loader.SnapshotLoader;
+import com.puppet.pcore.impl.serialization.msgpack.MsgPackSerializationFactory;
+import com.puppet.pcore.impl.types.AnyType;
+import com.puppet.pcore.loader.Loader;
+import com.puppet.pcore.loader.TypedName;
+import com.puppet.pcore.serialization.Deserializer;
+import com.puppet.pcore.serialization.SerializationException;
+import com.puppet.pcore.serialization.SerializationFactory;
+import com.puppet.pcore.serialization.Serializer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Writes the objects bound in a loader to a binary snapshot and creates a pcore from such a snapshot.
+ * <p>
+ * A snapshot starts with a magic number and a format version. The rest is a MessagePack stream, written by
+ * the Pcore {@link Serializer}, that contains one array with a <code>[type, name, name authority, value]</code>
+ * entry for each bound object. All values are written in one stream so that types that reference each other,
+ * or themselves, are restored with the same references.
+ * <p>
+ * A pcore that is booted from a snapshot maps the file into memory but doesn't read past the header until
+ * something is looked up in its loader. The types are then deserialized in their resolved form. No type
+ * expressions are parsed.
+ * <p>
+ * Only the loader of a pcore created from the static pcore can be written to a snapshot. The static pcore
+ * itself is always created by parsing and resolving the built-in types. Reading a snapshot needs those types,
+ * and it also needs the Java implementations registered for them, so they can't come from a snapshot.
+ */
+final class PcoreSnapshot {
+	private static final byte[] MAGIC = { 'P', 'C', 'O', 'R', 'E', 'S', 'N', 'P' };
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = MAGIC.length + 4;
+
+	private PcoreSnapshot() {
+	}
+
+	static void write(PcoreImpl pcore, OutputStream out) throws IOException {
+		Loader loader = pcore.loader();
+		if(!(loader instanceof BasicLoader))
+			throw new PcoreException(format("Cannot create a snapshot from a %s", loader.getClass().getName()));
+
+		// Sorted to make the snapshot of a given set of types deterministic
+		Map<TypedName,Object> bindings = new TreeMap<>(((BasicLoader)loader).bindings());
+		List<Object> entries = new ArrayList<>(bindings.size());
+		for(Map.Entry<TypedName,Object> binding : bindings.entrySet()) {
+			TypedName tn = binding.getKey();
+			Object value = binding.getValue();
+			if(value instanceof AnyType)
+				value = ((AnyType)value).resolve(pcore);
+			entries.add(asList(tn.type, tn.name, tn.nameAuthority.toString(), value));
+		}
+
+		DataOutputStream header = new DataOutputStream(out);
+		header.write(MAGIC);
+		header.writeInt(VERSION);
+		header.flush();
+
+		Serializer serializer = pcore.serializationFactory(SerializationFactory.MSGPACK).forOutput(pcore, emptyMap(), out);
+		serializer.write(entries);
+		serializer.finish();
+	}
+
+	static PcoreImpl boot(Path snapshot, boolean failWhenUnresolved) throws IOException {
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		assertHeader(buffer, snapshot);
+		buffer.position(HEADER_SIZE);
+
+		Materializer materializer = new Materializer(buffer.slice());
+		PcoreImpl pcore = new PcoreImpl(new SnapshotLoader(PcoreImpl.staticInstance().loader(), materializer), failWhenUnresolved);
+		materializer.pcore = pcore;
+		return pcore;
+	}
+
+	private static void assertHeader(ByteBuffer buffer, Path snapshot) throws IOException {
+		if(buffer.remaining() >= HEADER_SIZE) {
+			int idx = 0;
+			for(; idx < MAGIC.length; ++idx)
+				if(buffer.get(idx) != MAGIC[idx])
+					break;
+			if(idx == MAGIC.length) {
+				int version = buffer.getInt(MAGIC.length);
+				if(version == VERSION)
+					return;
+				throw new IOException(format("Unsupported Pcore snapshot version %d in %s", version, snapshot));
+			}
+		}
+		throw new IOException(format("%s is not a Pcore snapshot", snapshot));
+	}
+
+	private static final class Materializer implements Runnable {
+		private final ByteBuffer body;
+		private PcoreImpl pcore;
+
+		Materializer(ByteBuffer body) {
+			this.body = body;
+		}
+
+		@Override
+		public void run() {
+			Loader loader = pcore.loader();
+			List<?> entries;
+			try {
+				Deserializer deserializer = new MsgPackSerializationFactory().forInput(pcore, body);
+				entries = (List<?>)deserializer.read();
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			} catch(ClassCastException e) {
+				throw new SerializationException("Pcore snapshot does not contain a list of entries");
+			}
+
+			for(Object e : entries) {
+				List<?> entry = (List<?>)e;
+				TypedName tn = TypedName.of((String)entry.get(0), (String)entry.get(1), URI.create((String)entry.get(2)));
+				// Object types are bound by the deserializer as they are read
+				if(loader.loadOrNull(tn) == null)
+					loader.bind(tn, entry.get(3));
+			}
+		}
+	}
+}
@@ -1,57 +1,69 @@
 package com.puppet.pcore.impl;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 
+/**
+ * Base class for visitor like classes that dispatch to a method based on the runtime class of the
+ * first argument. The methods are found once using reflection and are then called using
+ * {@link MethodHandle}s. The handle to use for a given runtime class is cached in a {@link ClassValue}.
+ *
+ * @param <T> the return type of the dispatch
+ */
 public abstract class Polymorphic<T> {
 	protected static class DispatchMap {
 		private final String methodName;
-		private final Map<Class<?>,Method> methods;
+		private final Map<Class<?>,MethodHandle> methods;
+		private final int arity;
+		private final ClassValue<MethodHandle> handles = new ClassValue<MethodHandle>() {
+			@Override
+			protected MethodHandle computeValue(Class<?> cls) {
+				MethodHandle mh = findMethod(cls);
+				if(mh == null)
+					throw new IllegalArgumentException(format("Don't know how to %s instance of class '%s'", methodName, cls.getName()));
+				return mh;
+			}
+		};
 
-		private DispatchMap(String name, Map<Class<?>,Method> methods) {
+		private DispatchMap(String name, Map<Class<?>,MethodHandle> methods, int arity) {
 			this.methodName = name;
 			this.methods = methods;
+			this.arity = arity;
 		}
 
-		private Method findMethod(Object receiver) {
-			Method m;
+		private MethodHandle findMethod(Object receiver) {
 			if(receiver == null) {
-				m = methods.get(Void.class);
-				if(m == null)
+				MethodHandle mh = methods.get(Void.class);
+				if(mh == null)
 					throw new IllegalArgumentException(format("Don't know how to %s an undef", methodName));
-			} else {
-				Class<?> c = receiver.getClass();
-				m = findMethod(c);
-				if(m == null)
-					throw new IllegalArgumentException(format("Don't know how to %s instance of class '%s'", methodName, c.getName()));
+				return mh;
 			}
-			if(!m.isAccessible())
-				m.setAccessible(true);
-			return m;
+			return handles.get(receiver.getClass());
 		}
 
-		private Method findMethod(Class<?> cls) {
+		private MethodHandle findMethod(Class<?> cls) {
 			if(cls == null)
 				return null;
 
-			Method m = methods.get(cls);
-			if(m == null) {
+			MethodHandle mh = methods.get(cls);
+			if(mh == null) {
 				for(Class<?> ifd : cls.getInterfaces()) {
-					m = findMethod(ifd);
-					if(m != null)
+					mh = findMethod(ifd);
+					if(mh != null)
 						break;
 				}
-				if(m == null)
-					m = findMethod(cls.getSuperclass());
-				if(m != null)
-					methods.put(cls, m);
+				if(mh == null)
+					mh = findMethod(cls.getSuperclass());
 			}
-			return m;
+			return mh;
 		}
 	}
 
@@ -60,41 +72,104 @@ public abstract class Polymorphic<T> {
 	}
 
 	protected static DispatchMap initPolymorphicDispatch(Class<?> receiverClass, String name, int extraParams) {
-		Map<Class<?>,Method> result = new ConcurrentHashMap<>();
+		int arity = 1 + extraParams;
+		MethodType genericType = MethodType.genericMethodType(1 + arity);
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		Map<Class<?>,MethodHandle> result = new HashMap<>();
 		for(Method m : receiverClass.getDeclaredMethods()) {
 			if(m.getName().equals(name) && (m.getModifiers() & Modifier.STATIC) == 0) {
 				Class<?>[] paramTypes = m.getParameterTypes();
-				if(paramTypes.length == 1 + extraParams)
-					result.put(paramTypes[0], m);
+				if(paramTypes.length == arity) {
+					m.setAccessible(true);
+					try {
+						result.put(paramTypes[0], lookup.unreflect(m).asType(genericType));
+					} catch(IllegalAccessException e) {
+						throw new RuntimeException(e);
+					}
+				}
 			}
 		}
-		return new DispatchMap(name, result);
+		return new DispatchMap(name, result, arity);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T dispatch(Object arg) {
+		try {
+			return (T)getDispatchMap().findMethod(arg).invokeExact((Object)this, arg);
+		} catch(Throwable e) {
+			throw asRuntimeException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T dispatch(Object arg, Object arg2) {
+		try {
+			return (T)getDispatchMap().findMethod(arg).invokeExact((Object)this, arg, arg2);
+		} catch(Throwable e) {
+			throw asRuntimeException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T dispatch(Object arg, Object arg2, Object arg3) {
+		try {
+			return (T)getDispatchMap().findMethod(arg).invokeExact((Object)this, arg, arg2, arg3);
+		} catch(Throwable e) {
+			throw asRuntimeException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T dispatch(Object arg, Object arg2, Object arg3, Object arg4) {
+		try {
+			return (T)getDispatchMap().findMethod(arg).invokeExact((Object)this, arg, arg2, arg3, arg4);
+		} catch(Throwable e) {
+			throw asRuntimeException(e);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	protected T dispatch(Object ...args) {
-		Method m = getDispatchMap().findMethod(args[0]);
 		try {
-			return (T)m.invoke(this, args);
-		} catch(IllegalAccessException e) {
-			throw new RuntimeException(e);
-		} catch(InvocationTargetException e) {
-			Throwable te = e.getCause();
-			if(!(te instanceof RuntimeException))
-				te = new RuntimeException(te);
-			throw (RuntimeException)te;
+			return (T)invokeWithArguments(args);
+		} catch(Throwable e) {
+			throw asRuntimeException(e);
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "UnusedReturnValue"})
+	protected T dispatchWOCatch(Object arg) throws InvocationTargetException {
+		try {
+			return (T)getDispatchMap().findMethod(arg).invokeExact((Object)this, arg);
+		} catch(Throwable e) {
+			throw new InvocationTargetException(e);
 		}
 	}
 
 	@SuppressWarnings({"unchecked", "UnusedReturnValue"})
 	protected T dispatchWOCatch(Object ...args) throws InvocationTargetException {
-		Method m = getDispatchMap().findMethod(args[0]);
 		try {
-			return (T)m.invoke(this, args);
-		} catch(IllegalAccessException e) {
-			throw new RuntimeException(e);
+			return (T)invokeWithArguments(args);
+		} catch(Throwable e) {
+			throw new InvocationTargetException(e);
 		}
 	}
 
 	protected abstract DispatchMap getDispatchMap();
+
+	private Object invokeWithArguments(Object[] args) throws Throwable {
+		DispatchMap dm = getDispatchMap();
+		if(args.length != dm.arity)
+			throw new IllegalArgumentException(format("Wrong number of arguments for %s. Expected %d, got %d", dm.methodName, dm.arity, args.length));
+		Object[] argsWithSelf = new Object[args.length + 1];
+		argsWithSelf[0] = this;
+		System.arraycopy(args, 0, argsWithSelf, 1, args.length);
+		return dm.findMethod(args[0]).invokeWithArguments(argsWithSelf);
+	}
+
+	private static RuntimeException asRuntimeException(Throwable e) {
+		if(e instanceof Error)
+			throw (Error)e;
+		return e instanceof RuntimeException ? (RuntimeException)e : new RuntimeException(e);
+	}
 }
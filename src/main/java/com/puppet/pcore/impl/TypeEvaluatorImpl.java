@@ -106,7 +106,7 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 
 	public AnyType bindByName(String name, AnyType typeToBind, URI nameAuthority) {
 		Loader loader = pcore.loader();
-		TypedName typedName = new TypedName("type", name, nameAuthority);
+		TypedName typedName = TypedName.of("type", name, nameAuthority);
 		AnyType type = (AnyType)loader.loadOrNull(typedName);
 		if(type != null && type.equals(typeToBind))
 			return type;
@@ -161,7 +161,20 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 
 	@Override
 	public Object resolve(String typeString) {
-		return resolve(parse(typeString));
+		TypeResolutionCache cache = pcore.typeResolutionCache();
+		Loader loader = pcore.loader();
+		if(cache == null || loader.generation() == Loader.UNKNOWN_GENERATION)
+			return resolve(parse(typeString));
+
+		Object value = cache.get(typeString, loader, false);
+		if(value == null) {
+			long generation = loader.generation();
+			value = resolve(parse(typeString));
+			// Arrays and hashes are mutable and must be created anew for each call
+			if(value instanceof AnyType || value instanceof String || value instanceof Number || value instanceof Boolean)
+				cache.put(typeString, loader, false, generation, value);
+		}
+		return value;
 	}
 
 	@Override
@@ -171,7 +184,18 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 
 	@Override
 	public AnyType resolveType(String typeString) {
-		return resolveType(parse(typeString));
+		TypeResolutionCache cache = pcore.typeResolutionCache();
+		Loader loader = pcore.loader();
+		if(cache == null || loader.generation() == Loader.UNKNOWN_GENERATION)
+			return resolveType(parse(typeString));
+
+		AnyType type = (AnyType)cache.get(typeString, loader, true);
+		if(type == null) {
+			long generation = loader.generation();
+			type = resolveType(parse(typeString));
+			cache.put(typeString, loader, true, generation, type);
+		}
+		return type;
 	}
 
 	@Override
@@ -478,8 +502,7 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 			throw new TypeResolverException(format("Not a parameterized type '%s'", te.name));
 		default: {
 			Loader loader = pcore.loader();
-			TypedName typedName = new TypedName("type", te.name, loader.getNameAuthority());
-			AnyType found = (AnyType)loader.loadOrNull(typedName);
+			AnyType found = (AnyType)loader.loadOrNull("type", te.name, loader.getNameAuthority());
 			if(found == null) {
 				StringBuilder bld = new StringBuilder(te.name);
 				new TypeFormatter(bld).format(asList(args));
@@ -505,8 +528,7 @@ public class TypeEvaluatorImpl extends Polymorphic<Object> implements TypeEvalua
 			return type;
 
 		Loader loader = pcore.loader();
-		TypedName typedName = new TypedName("type", te.name, loader.getNameAuthority());
-		AnyType found = (AnyType)loader.loadOrNull(typedName);
+		AnyType found = (AnyType)loader.loadOrNull("type", te.name, loader.getNameAuthority());
 		return found == null ? typeReferenceType(te.name) : found;
 	}
 
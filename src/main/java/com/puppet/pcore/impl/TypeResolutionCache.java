@@ -0,0 +1,169 @@
+package com.puppet.pcore.impl;
+
+import com.puppet.pcore.loader.Loader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the results of resolving type strings, keyed on the string and the identity of the
+ * loader that was used when resolving it.
+ * <p>
+ * The cache is divided into stripes, each guarded by its own lock and each evicting its least recently used
+ * entry when full. Every entry records the {@link Loader#generation()} of its loader at the time the string
+ * was resolved. An entry is ignored once the generation has changed, i.e. when something new has been bound
+ * in the loader or in one of its parents. Nothing is cached for a loader that reports
+ * {@link Loader#UNKNOWN_GENERATION}.
+ */
+public class TypeResolutionCache {
+	private static final int MAX_STRIPES = 16;
+
+	private static final class Key {
+		final String string;
+		final Loader loader;
+		final boolean typeOnly;
+
+		Key(String string, Loader loader, boolean typeOnly) {
+			this.string = string;
+			this.loader = loader;
+			this.typeOnly = typeOnly;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof Key))
+				return false;
+			Key k = (Key)o;
+			return loader == k.loader && typeOnly == k.typeOnly && string.equals(k.string);
+		}
+
+		@Override
+		public int hashCode() {
+			return string.hashCode() * 31 + System.identityHashCode(loader) + (typeOnly ? 1 : 0);
+		}
+	}
+
+	private static final class Entry {
+		final long generation;
+		final Object value;
+
+		Entry(long generation, Object value) {
+			this.generation = generation;
+			this.value = value;
+		}
+	}
+
+	private static final class Stripe extends LinkedHashMap<Key,Entry> {
+		private static final long serialVersionUID = 1L;
+
+		private final int maxEntries;
+
+		Stripe(int maxEntries) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key,Entry> eldest) {
+			return size() > maxEntries;
+		}
+	}
+
+	private final Stripe[] stripes;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param maxEntries the maximum number of entries
+	 */
+	public TypeResolutionCache(int maxEntries) {
+		if(maxEntries < 1)
+			throw new IllegalArgumentException("Type resolution cache must have room for at least one entry");
+		int stripeCount = Integer.highestOneBit(Math.min(MAX_STRIPES, maxEntries));
+		int stripeSize = (maxEntries + stripeCount - 1) / stripeCount;
+		stripes = new Stripe[stripeCount];
+		for(int idx = 0; idx < stripeCount; ++idx)
+			stripes[idx] = new Stripe(stripeSize);
+	}
+
+	/**
+	 * Remove all entries from the cache. Hit and miss counters are not affected.
+	 */
+	public void clear() {
+		for(Stripe stripe : stripes) {
+			synchronized(stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of lookups that were answered by the cache
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that required a parse and an evaluation
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the maximum number of entries that this cache can hold
+	 */
+	public int capacity() {
+		return stripes.length * stripes[0].maxEntries;
+	}
+
+	/**
+	 * Returns the cached result of resolving the given string using the given loader or {@code null} if no valid
+	 * result is cached.
+	 *
+	 * @param string the string that was resolved
+	 * @param loader the loader that was used
+	 * @param typeOnly {@code true} if the string was resolved as a type
+	 * @return the cached result or {@code null}
+	 */
+	Object get(String string, Loader loader, boolean typeOnly) {
+		Key key = new Key(string, loader, typeOnly);
+		Stripe stripe = stripeFor(key);
+		Entry entry;
+		synchronized(stripe) {
+			entry = stripe.get(key);
+		}
+		if(entry != null && entry.generation != Loader.UNKNOWN_GENERATION && entry.generation == loader.generation()) {
+			hits.increment();
+			return entry.value;
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Stores the result of resolving the given string using the given loader.
+	 *
+	 * @param string the string that was resolved
+	 * @param loader the loader that was used
+	 * @param typeOnly {@code true} if the string was resolved as a type
+	 * @param generation the generation of the loader before the string was resolved
+	 * @param value the result
+	 */
+	void put(String string, Loader loader, boolean typeOnly, long generation, Object value) {
+		if(generation == Loader.UNKNOWN_GENERATION)
+			return;
+		Key key = new Key(string, loader, typeOnly);
+		Stripe stripe = stripeFor(key);
+		synchronized(stripe) {
+			stripe.put(key, new Entry(generation, value));
+		}
+	}
+
+	private Stripe stripeFor(Key key) {
+		int h = key.hashCode();
+		return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+	}
+}
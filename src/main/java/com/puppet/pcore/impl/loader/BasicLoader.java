@@ -6,18 +6,25 @@ import com.puppet.pcore.loader.Loader;
 import com.puppet.pcore.loader.TypedName;
 
 import java.net.URI;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.puppet.pcore.impl.Constants.RUNTIME_NAME_AUTHORITY;
 
+/**
+ * A loader that keeps its bound objects in a concurrent map. Lookups never lock. Binding and freezing are
+ * synchronized with each other so that nothing can be bound once the loader is frozen. The map is not created
+ * until something is bound, which keeps loaders that never bind anything cheap.
+ */
 public class BasicLoader implements Loader {
-	private final Map<TypedName,Object> boundObjects = new HashMap<>();
-	private boolean frozen = false;
+	private volatile Map<TypedName,Object> boundObjects;
+	private volatile boolean frozen = false;
+	private volatile long generation;
 
 	@Override
 	public void bind(String type, String name, Object toBeBound) throws TypeRedefinedException {
-		bind(new TypedName(type, name, getNameAuthority()), toBeBound);
+		bind(TypedName.of(type, name, getNameAuthority()), toBeBound);
 	}
 
 	@Override
@@ -25,21 +32,38 @@ public class BasicLoader implements Loader {
 		if(loadOrNull(name) != null)
 			throw new TypeRedefinedException(name.toString());
 		assertModifiable();
-		boundObjects.put(name, type);
+		Map<TypedName,Object> bo = boundObjects;
+		if(bo == null)
+			boundObjects = bo = new ConcurrentHashMap<>();
+		bo.put(name, type);
+		++generation;
 	}
 
 	@Override
-	public void freeze() {
+	public synchronized void freeze() {
 		frozen = true;
 	}
 
+	/**
+	 * @return an unmodifiable view of the objects that are bound in this loader, not including its parents
+	 */
+	public Map<TypedName,Object> bindings() {
+		Map<TypedName,Object> bo = boundObjects;
+		return bo == null ? Collections.emptyMap() : Collections.unmodifiableMap(bo);
+	}
+
+	@Override
+	public long generation() {
+		return generation;
+	}
+
 	@Override
 	public URI getNameAuthority() {
 		return RUNTIME_NAME_AUTHORITY;
 	}
 
 	@Override
-	public synchronized Object load(TypedName name) throws NoSuchTypeException {
+	public Object load(TypedName name) throws NoSuchTypeException {
 		Object type = loadOrNull(name);
 		if(type == null)
 			throw new NoSuchTypeException(name.toString());
@@ -47,8 +71,21 @@ public class BasicLoader implements Loader {
 	}
 
 	@Override
-	public synchronized Object loadOrNull(TypedName name) throws NoSuchTypeException {
-		return boundObjects.get(name);
+	public Object loadOrNull(TypedName name) throws NoSuchTypeException {
+		Map<TypedName,Object> bo = boundObjects;
+		return bo == null ? null : bo.get(name);
+	}
+
+	/**
+	 * Removes all bindings and unfreezes this loader so that it can be reused. The generation keeps increasing so
+	 * that results that were cached for the previous bindings are never considered valid again.
+	 */
+	public synchronized void reset() {
+		Map<TypedName,Object> bo = boundObjects;
+		if(bo != null)
+			bo.clear();
+		++generation;
+		frozen = false;
 	}
 
 	private void assertModifiable() {
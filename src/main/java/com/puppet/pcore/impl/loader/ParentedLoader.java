@@ -3,16 +3,77 @@ package com.puppet.pcore.impl.loader;
 import com.puppet.pcore.loader.Loader;
 import com.puppet.pcore.loader.TypedName;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A loader that consults a parent loader before looking at its own bindings. The results of parent lookups,
+ * including the ones that found nothing, are cached. Each cached result records the generation of the parent
+ * at the time of the lookup and is ignored once the parent, or any loader in its chain, has bound something new.
+ */
 public class ParentedLoader extends BasicLoader {
+	/**
+	 * The cache is cleared when it grows beyond this size to prevent that lookups of arbitrary names
+	 * fill it up
+	 */
+	private static final int MAX_CACHED_PARENT_RESULTS = 4096;
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static final class ParentResult {
+		final long generation;
+		final Object value;
+
+		ParentResult(long generation, Object value) {
+			this.generation = generation;
+			this.value = value;
+		}
+	}
+
 	private final Loader parentLoader;
+	private volatile Map<TypedName,ParentResult> parentResults;
 
 	public ParentedLoader(Loader parentLoader) {
 		this.parentLoader = parentLoader;
 	}
 
+	@Override
+	public long generation() {
+		long parentGeneration = parentLoader.generation();
+		return parentGeneration == UNKNOWN_GENERATION ? UNKNOWN_GENERATION : parentGeneration + super.generation();
+	}
+
 	@Override
 	public Object loadOrNull(TypedName name) {
-		Object found = parentLoader.loadOrNull(name);
+		Object found = loadFromParent(name);
 		return found == null ? super.loadOrNull(name) : found;
 	}
+
+	@Override
+	public synchronized void reset() {
+		super.reset();
+		Map<TypedName,ParentResult> pr = parentResults;
+		if(pr != null)
+			pr.clear();
+	}
+
+	private Object loadFromParent(TypedName name) {
+		long generation = parentLoader.generation();
+		if(generation == UNKNOWN_GENERATION)
+			return parentLoader.loadOrNull(name);
+
+		Map<TypedName,ParentResult> pr = parentResults;
+		if(pr == null)
+			// Losing a cache that was created concurrently is harmless
+			parentResults = pr = new ConcurrentHashMap<>();
+		ParentResult result = pr.get(name);
+		if(result == null || result.generation != generation) {
+			Object found = parentLoader.loadOrNull(name);
+			if(pr.size() >= MAX_CACHED_PARENT_RESULTS)
+				pr.clear();
+			result = new ParentResult(generation, found == null ? NOT_FOUND : found);
+			pr.put(name, result);
+		}
+		return result.value == NOT_FOUND ? null : result.value;
+	}
 }
@@ -0,0 +1,65 @@
+package com.puppet.pcore.impl.loader;
+
+import com.puppet.pcore.loader.Loader;
+import com.puppet.pcore.loader.TypedName;
+
+import java.util.Map;
+
+/**
+ * A loader that is populated from a snapshot the first time it is asked for an object. The snapshot is
+ * read by a materializer that binds everything it finds in this loader. Lookups that are made by the
+ * materializer itself, while it reads the snapshot, see what has been bound so far. Lookups from other
+ * threads wait until the snapshot has been read.
+ */
+public class SnapshotLoader extends ParentedLoader {
+	private Runnable materializer;
+	private volatile boolean materialized;
+	private boolean materializing;
+
+	/**
+	 * @param parentLoader the parent loader
+	 * @param materializer reads the snapshot and binds its contents in this loader
+	 */
+	public SnapshotLoader(Loader parentLoader, Runnable materializer) {
+		super(parentLoader);
+		this.materializer = materializer;
+	}
+
+	@Override
+	public Map<TypedName,Object> bindings() {
+		materialize();
+		return super.bindings();
+	}
+
+	/**
+	 * @return {@code true} if the snapshot has been read
+	 */
+	public boolean isMaterialized() {
+		return materialized;
+	}
+
+	@Override
+	public Object loadOrNull(TypedName name) {
+		materialize();
+		return super.loadOrNull(name);
+	}
+
+	private void materialize() {
+		if(materialized)
+			return;
+		synchronized(this) {
+			// A lookup made by the materializer must not read the snapshot again
+			if(materialized || materializing)
+				return;
+			materializing = true;
+			try {
+				materializer.run();
+				// The materializer holds on to the snapshot, which is no longer needed
+				materializer = null;
+				materialized = true;
+			} finally {
+				materializing = false;
+			}
+		}
+	}
+}
@@ -12,6 +12,7 @@ import com.puppet.pcore.semver.VersionRange;
 import com.puppet.pcore.serialization.Reader;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -25,6 +26,11 @@ public abstract class AbstractReader implements Reader {
 	private final ArrayList<Object> objectsRead = new ArrayList<>();
 	protected final ExtensionAwareUnpacker unpacker;
 
+	/**
+	 * Number of values that remain to be read before the current top-level value is complete
+	 */
+	private long pendingValues;
+
 	protected AbstractReader(ExtensionAwareUnpacker unpacker) {
 		this.unpacker = unpacker;
 		registerTypes();
@@ -35,17 +41,57 @@ public abstract class AbstractReader implements Reader {
 		throw new UnsupportedOperationException(getClass().getName() + " does not support partial read of data chunks");
 	}
 
+	@Override
+	public void reset() throws IOException {
+		while(pendingValues > 0)
+			read();
+		objectsRead.clear();
+		unpacker.reset();
+	}
+
+	/**
+	 * Make this reader ready to read a new message from the given input.
+	 *
+	 * @param in the input
+	 * @throws IOException propagated from the underlying unpacker
+	 */
+	public void reset(InputStream in) throws IOException {
+		pendingValues = 0;
+		objectsRead.clear();
+		unpacker.reset(in);
+	}
+
+	/**
+	 * Let go of the input and of the objects read in the last message so that they can be garbage collected. The reader
+	 * must be reset with a new input before it is used again.
+	 */
+	public void release() {
+		pendingValues = 0;
+		objectsRead.clear();
+		unpacker.release();
+	}
+
 	@Override
 	public Object read() throws IOException {
 		Object obj = unpacker.read();
+		if(pendingValues > 0)
+			--pendingValues;
 		if(obj instanceof InnerTabulation)
-			return objectsRead.get(((InnerTabulation)obj).index);
-		if(obj == null || obj instanceof Number || obj instanceof NotTabulated || obj instanceof Boolean)
-			return obj;
-		objectsRead.add(obj);
+			obj = objectsRead.get(((InnerTabulation)obj).index);
+		else if(!(obj == null || obj instanceof Number || obj instanceof NotTabulated || obj instanceof Boolean))
+			objectsRead.add(obj);
+		pendingValues += valuesContainedIn(obj);
 		return obj;
 	}
 
+	private static long valuesContainedIn(Object obj) {
+		if(obj instanceof MapStart)
+			return ((MapStart)obj).size * 2L;
+		if(obj instanceof SequenceStart)
+			return ((SequenceStart)obj).sequenceSize();
+		return obj instanceof SensitiveStart ? 1 : 0;
+	}
+
 	protected <T> T readPayload(byte[] data, IOFunction<ExtensionAwareUnpacker,T> block) throws IOException {
 		return block.apply(unpacker);
 	}
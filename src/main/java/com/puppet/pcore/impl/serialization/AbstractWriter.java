@@ -12,6 +12,7 @@ import com.puppet.pcore.semver.VersionRange;
 import com.puppet.pcore.serialization.Writer;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
@@ -42,6 +43,32 @@ public abstract class AbstractWriter implements Writer {
 		packer.flush();
 	}
 
+	@Override
+	public void reset() throws IOException {
+		objectsWritten.clear();
+		packer.reset();
+	}
+
+	/**
+	 * Make this writer ready to write a new message to the given output after {@link #finish()}.
+	 *
+	 * @param out the output
+	 * @throws IOException propagated from the underlying packer
+	 */
+	public void reset(OutputStream out) throws IOException {
+		objectsWritten.clear();
+		packer.reset(out);
+	}
+
+	/**
+	 * Let go of the output and of the objects written in the last message so that they can be garbage collected. The
+	 * writer must be reset with a new output before it is used again.
+	 */
+	public void release() {
+		objectsWritten.clear();
+		packer.release();
+	}
+
 	@Override
 	public void write(Object value) throws IOException {
 		if(!tabulate || value == null || value instanceof Number || value instanceof Boolean || value instanceof Symbol ||
@@ -64,6 +91,32 @@ public abstract class AbstractWriter implements Writer {
 		return null;
 	}
 
+	/**
+	 * Builds a payload that consists of one integer. Writers that know the encoded size of an integer can override this
+	 * method to write the payload without first building it.
+	 *
+	 * @param value the integer
+	 * @return the payload or {@code null} if it has been written
+	 */
+	protected byte[] buildIntPayload(long value) throws IOException {
+		return buildPayload(ep -> ep.write(value));
+	}
+
+	/**
+	 * Builds a payload that consists of two integers.
+	 *
+	 * @param first the first integer
+	 * @param second the second integer
+	 * @return the payload or {@code null} if it has been written
+	 * @see #buildIntPayload(long)
+	 */
+	protected byte[] buildIntPayload(long first, long second) throws IOException {
+		return buildPayload(ep -> {
+			ep.write(first);
+			ep.write(second);
+		});
+	}
+
 	protected boolean supportsBinary() {
 		return false;
 	}
@@ -73,29 +126,23 @@ public abstract class AbstractWriter implements Writer {
 	}
 
 	private void registerTypes() {
-		registerType(INNER_TABULATION, InnerTabulation.class, o -> buildPayload(ep -> ep.write(o.index)));
-		registerType(TABULATION, Tabulation.class, o -> buildPayload(ep -> ep.write(o.index)));
-		registerType(ARRAY_START, ArrayStart.class, o -> buildPayload(ep -> ep.write(o.size)));
-		registerType(MAP_START, MapStart.class, o -> buildPayload(ep -> ep.write(o.size)));
+		registerType(INNER_TABULATION, InnerTabulation.class, o -> buildIntPayload(o.index));
+		registerType(TABULATION, Tabulation.class, o -> buildIntPayload(o.index));
+		registerType(ARRAY_START, ArrayStart.class, o -> buildIntPayload(o.size));
+		registerType(MAP_START, MapStart.class, o -> buildIntPayload(o.size));
 		registerType(PCORE_OBJECT_START, PcoreObjectStart.class, o -> buildPayload(ep -> {
 			writePayloadQName(ep, o.typeName);
 			ep.write(o.attributeCount);
 		}));
-		registerType(OBJECT_START, ObjectStart.class, o -> buildPayload(ep -> ep.write(o.attributeCount)));
+		registerType(OBJECT_START, ObjectStart.class, o -> buildIntPayload(o.attributeCount));
 		registerType(SENSITIVE_START, SensitiveStart.class, o -> buildPayload(ep -> {}));
 		registerType(DEFAULT, Default.class, o -> buildPayload(ep -> {}));
 		registerType(COMMENT, Comment.class, o -> buildPayload(ep -> ep.write(o.comment)));
 		registerType(REGEXP, Regexp.class, o -> buildPayload(ep -> ep.write(o.toString())));
 		registerType(TYPE_REFERENCE, TypeReferenceType.class, o -> buildPayload(ep -> ep.write(o.typeString)));
 		registerType(SYMBOL, Symbol.class, o -> buildPayload(ep -> ep.write(o.toString())));
-		registerType(TIME, Instant.class, o -> buildPayload(ep -> {
-			ep.write(o.getEpochSecond());
-			ep.write(o.getNano());
-		}));
-		registerType(TIMESPAN, Duration.class, o -> buildPayload(ep -> {
-			ep.write(o.getSeconds());
-			ep.write(o.getNano());
-		}));
+		registerType(TIME, Instant.class, o -> buildIntPayload(o.getEpochSecond(), o.getNano()));
+		registerType(TIMESPAN, Duration.class, o -> buildIntPayload(o.getSeconds(), o.getNano()));
 		registerType(VERSION, Version.class, o -> buildPayload(ep -> ep.write(o.toString())));
 		registerType(VERSION_RANGE, VersionRange.class, o -> buildPayload(ep -> ep.write(o.toString())));
 		if(supportsBinary())
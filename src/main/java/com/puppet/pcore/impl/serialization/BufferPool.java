@@ -0,0 +1,70 @@
+package com.puppet.pcore.impl.serialization;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of equally sized buffers that are either all direct or all heap buffers. The pool is safe to share between
+ * threads.
+ */
+public final class BufferPool {
+	private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final int bufferSize;
+	private final boolean direct;
+	private final int maxPooled;
+
+	/**
+	 * @param bufferSize the capacity of the buffers
+	 * @param direct {@code true} for direct buffers, {@code false} for heap buffers
+	 * @param maxPooled the maximum number of released buffers that are kept for reuse
+	 */
+	public BufferPool(int bufferSize, boolean direct, int maxPooled) {
+		if(bufferSize < 16)
+			throw new IllegalArgumentException("Buffer size must be at least 16 bytes");
+		if(maxPooled < 0)
+			throw new IllegalArgumentException("Max pooled buffers cannot be negative");
+		this.bufferSize = bufferSize;
+		this.direct = direct;
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * Returns a cleared buffer from the pool, or a new buffer if the pool is empty.
+	 *
+	 * @return the buffer
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		if(buffer == null)
+			return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+		size.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Gives a buffer back to the pool. Buffers that were not acquired from a pool like this one, and buffers released
+	 * when the pool is full, are left to the garbage collector.
+	 *
+	 * @param buffer the buffer
+	 */
+	public void release(ByteBuffer buffer) {
+		if(buffer.capacity() != bufferSize || buffer.isDirect() != direct || buffer.isReadOnly())
+			return;
+		if(size.incrementAndGet() > maxPooled)
+			size.decrementAndGet();
+		else
+			buffers.offer(buffer);
+	}
+
+	public int bufferSize() {
+		return bufferSize;
+	}
+
+	public boolean isDirect() {
+		return direct;
+	}
+}
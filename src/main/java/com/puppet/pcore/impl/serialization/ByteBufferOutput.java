@@ -0,0 +1,205 @@
+package com.puppet.pcore.impl.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Output target that collects serialized bytes in {@link ByteBuffer}s. The buffers are supplied by the caller, taken
+ * from a {@link BufferPool}, or both, in which case the pool provides buffers once the supplied ones are full. Writing
+ * beyond the supplied buffers when there is no pool throws a {@link BufferOverflowException}.
+ * <p>
+ * The bytes written are transferred with {@link #writeTo(WritableByteChannel)} or obtained with {@link #buffers()}.
+ * Once transferred, {@link #clear()} makes the output ready for the next message while keeping the supplied buffers
+ * and one pooled buffer. Instances are not thread safe.
+ */
+public final class ByteBufferOutput {
+	private final BufferPool pool;
+	private final List<ByteBuffer> buffers = new ArrayList<>();
+	private final int suppliedCount;
+	private int current;
+	private ByteBuffer[] gather = new ByteBuffer[0];
+	private OutputStream stream;
+
+	public ByteBufferOutput(BufferPool pool) {
+		this(pool, new ByteBuffer[0]);
+	}
+
+	public ByteBufferOutput(ByteBuffer... buffers) {
+		this(null, buffers);
+	}
+
+	/**
+	 * @param pool the pool to take buffers from when the supplied buffers are full, or {@code null}
+	 * @param buffers buffers to write to before buffers are taken from the pool
+	 */
+	public ByteBufferOutput(BufferPool pool, ByteBuffer... buffers) {
+		this.pool = pool;
+		this.buffers.addAll(Arrays.asList(buffers));
+		this.suppliedCount = buffers.length;
+	}
+
+	/**
+	 * @return the number of bytes written since the output was created or last cleared
+	 */
+	public long size() {
+		long size = 0;
+		for(int idx = 0; idx <= current && idx < buffers.size(); ++idx)
+			size += buffers.get(idx).position();
+		return size;
+	}
+
+	/**
+	 * Returns the bytes written as read only buffers, ready to be read. The buffers share their content with this output
+	 * and must not be used after the output is cleared.
+	 *
+	 * @return the buffers
+	 */
+	public ByteBuffer[] buffers() {
+		int count = writtenCount();
+		ByteBuffer[] result = new ByteBuffer[count];
+		for(int idx = 0; idx < count; ++idx) {
+			ByteBuffer buffer = buffers.get(idx).asReadOnlyBuffer();
+			buffer.flip();
+			result[idx] = buffer;
+		}
+		return result;
+	}
+
+	/**
+	 * Writes all bytes written to this output to the given blocking channel. A {@link GatheringByteChannel} is given all
+	 * buffers at once. The output is not cleared.
+	 *
+	 * @param channel the channel to write to
+	 * @return the number of bytes written to the channel
+	 * @throws IOException propagated from the channel
+	 */
+	public long writeTo(WritableByteChannel channel) throws IOException {
+		int count = writtenCount();
+		if(gather.length < count)
+			gather = new ByteBuffer[buffers.size()];
+		for(int idx = 0; idx < count; ++idx) {
+			ByteBuffer buffer = buffers.get(idx);
+			buffer.flip();
+			gather[idx] = buffer;
+		}
+
+		long written = 0;
+		try {
+			if(channel instanceof GatheringByteChannel) {
+				for(int first = 0; first < count; ) {
+					written += ((GatheringByteChannel)channel).write(gather, first, count - first);
+					while(first < count && !gather[first].hasRemaining())
+						++first;
+				}
+			} else {
+				for(int idx = 0; idx < count; ++idx) {
+					ByteBuffer buffer = gather[idx];
+					while(buffer.hasRemaining())
+						written += channel.write(buffer);
+				}
+			}
+		} finally {
+			// Back to write mode. Position is at the old limit after a complete write
+			for(int idx = 0; idx < count; ++idx) {
+				ByteBuffer buffer = gather[idx];
+				buffer.position(buffer.limit());
+				buffer.limit(buffer.capacity());
+				gather[idx] = null;
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Discards the bytes written. Pooled buffers, except the first one, are given back to the pool.
+	 */
+	public void clear() {
+		releaseFrom(pool == null ? suppliedCount : Math.min(buffers.size(), suppliedCount + 1));
+		for(ByteBuffer buffer : buffers)
+			buffer.clear();
+		current = 0;
+	}
+
+	/**
+	 * Discards the bytes written and gives all pooled buffers back to the pool. The output can still be used after
+	 * this call.
+	 */
+	public void release() {
+		releaseFrom(suppliedCount);
+		for(ByteBuffer buffer : buffers)
+			buffer.clear();
+		current = 0;
+	}
+
+	/**
+	 * @return an output stream that writes to this output
+	 */
+	public OutputStream asOutputStream() {
+		if(stream == null) {
+			stream = new OutputStream() {
+				@Override
+				public void write(int b) {
+					ByteBufferOutput.this.write(b);
+				}
+
+				@Override
+				public void write(byte[] bytes, int off, int len) {
+					ByteBufferOutput.this.write(bytes, off, len);
+				}
+			};
+		}
+		return stream;
+	}
+
+	public void write(int b) {
+		writable().put((byte)b);
+	}
+
+	public void write(byte[] bytes, int off, int len) {
+		while(len > 0) {
+			ByteBuffer buffer = writable();
+			int n = Math.min(len, buffer.remaining());
+			buffer.put(bytes, off, n);
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Returns the buffer to write next. The buffer has room for at least one byte. Bytes are written by putting them in
+	 * the buffer, which advances its position.
+	 *
+	 * @return the buffer
+	 * @throws BufferOverflowException if all buffers are full and there is no pool to take another one from
+	 */
+	public ByteBuffer writable() {
+		for(; ; ) {
+			if(current < buffers.size()) {
+				ByteBuffer buffer = buffers.get(current);
+				if(buffer.hasRemaining())
+					return buffer;
+				++current;
+				continue;
+			}
+			if(pool == null)
+				throw new BufferOverflowException();
+			buffers.add(pool.acquire());
+		}
+	}
+
+	private int writtenCount() {
+		return Math.min(current + 1, buffers.size());
+	}
+
+	private void releaseFrom(int start) {
+		for(int idx = buffers.size() - 1; idx >= start; --idx)
+			pool.release(buffers.remove(idx));
+	}
+}
@@ -20,7 +20,7 @@ import java.util.*;
 public class DeserializerImpl implements Deserializer {
 	private final List<Object> objectsRead = new ArrayList<>();
 	private final Reader reader;
-	private final Pcore pcore;
+	private Pcore pcore;
 
 	public DeserializerImpl(Pcore pcore, Reader reader) {
 		this.pcore = pcore;
@@ -32,6 +32,28 @@ public class DeserializerImpl implements Deserializer {
 		return reader;
 	}
 
+	@Override
+	public void reset() throws IOException {
+		objectsRead.clear();
+		reader.reset();
+	}
+
+	/**
+	 * Reset for reuse by another session. The reader is reset separately.
+	 */
+	void reset(Pcore pcore) {
+		objectsRead.clear();
+		this.pcore = pcore;
+	}
+
+	/**
+	 * Let go of the pcore and of the objects read so that they can be garbage collected.
+	 */
+	void release() {
+		objectsRead.clear();
+		pcore = null;
+	}
+
 	@Override
 	public Object read() throws IOException {
 		Object val = reader.read();
@@ -74,7 +96,7 @@ public class DeserializerImpl implements Deserializer {
 			val = ot.newInstance(new DeserializerArgumentsAccessor(this, ot, os.attributeCount));
 			if(val instanceof ObjectType) {
 				val = ((ObjectType)val).resolve(pcore);
-				TypedName tn = new TypedName(Constants.KEY_TYPE, ((ObjectType)val).name().toLowerCase());
+				TypedName tn = TypedName.of(Constants.KEY_TYPE, ((ObjectType)val).name());
 
 				// Add result to the loader unless it is the exact same instance as the type returned from loadOrNull. The add
 				// will succeed when loadOrNull returns null.
@@ -1,10 +1,27 @@
 package com.puppet.pcore.impl.serialization;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 public interface ExtensionAwarePacker {
 	void flush() throws IOException;
 
+	/**
+	 * Prepare for a new message after a flush.
+	 */
+	void reset() throws IOException;
+
+	/**
+	 * Prepare for a new message written to the given output after a flush.
+	 */
+	void reset(OutputStream out) throws IOException;
+
+	/**
+	 * Let go of the output so that it can be garbage collected. The packer must be reset with a new output before it
+	 * is used again.
+	 */
+	void release();
+
 	<T> void registerType(byte extensionNumber, Class<T> extClass, PayloadWriterFunction<T> payloadWriterFunction);
 
 	void write(String val) throws IOException;
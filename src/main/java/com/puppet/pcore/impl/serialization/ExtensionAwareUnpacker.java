@@ -1,6 +1,7 @@
 package com.puppet.pcore.impl.serialization;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface ExtensionAwareUnpacker {
 	Object read() throws IOException;
@@ -14,4 +15,21 @@ public interface ExtensionAwareUnpacker {
 	String readString() throws IOException;
 
 	void registerType(byte extensionNumber, PayloadReaderFunction<?> payloadReaderFunction);
+
+	/**
+	 * Prepare for a new message from the same input. Unpackers of formats that delimit messages skip what remains of
+	 * the current message.
+	 */
+	void reset() throws IOException;
+
+	/**
+	 * Prepare for a new message from the given input.
+	 */
+	void reset(InputStream in) throws IOException;
+
+	/**
+	 * Let go of the input so that it can be garbage collected. The unpacker must be reset with a new input before it
+	 * is used again.
+	 */
+	void release();
 }
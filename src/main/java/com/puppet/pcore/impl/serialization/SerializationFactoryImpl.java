@@ -1,16 +1,90 @@
 package com.puppet.pcore.impl.serialization;
 
 import com.puppet.pcore.Pcore;
+import com.puppet.pcore.serialization.Deserializer;
 import com.puppet.pcore.serialization.Reader;
 import com.puppet.pcore.serialization.SerializationFactory;
+import com.puppet.pcore.serialization.Serializer;
 import com.puppet.pcore.serialization.Writer;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.Map;
 
 public abstract class SerializationFactoryImpl implements SerializationFactory {
+	/**
+	 * The serializer and deserializer that a thread keeps for reuse
+	 */
+	private static final class Session {
+		SerializerImpl serializer;
+		AbstractWriter writer;
+		Map<String,Object> options;
+		boolean serializerInUse;
+
+		DeserializerImpl deserializer;
+		AbstractReader reader;
+		boolean deserializerInUse;
+	}
+
+	private final ThreadLocal<Session> sessions = ThreadLocal.withInitial(Session::new);
+
+	@Override
+	public SerializerImpl acquireSerializer(Pcore pcore, Map<String,Object> options, OutputStream out) throws IOException {
+		Session session = sessions.get();
+		if(session.serializerInUse)
+			return forOutput(pcore, options, out);
+
+		if(session.serializer == null || !session.options.equals(options)) {
+			session.writer = (AbstractWriter)writerOn(options, out);
+			session.serializer = new SerializerImpl(pcore, session.writer);
+			session.options = new HashMap<>(options);
+		} else {
+			session.writer.reset(out);
+			session.serializer.reset(pcore);
+		}
+		session.serializerInUse = true;
+		return session.serializer;
+	}
+
+	@Override
+	public void release(Serializer serializer) {
+		Session session = sessions.get();
+		if(session.serializer == serializer && session.serializerInUse) {
+			session.serializer.release();
+			session.writer.release();
+			session.serializerInUse = false;
+		}
+	}
+
+	@Override
+	public DeserializerImpl acquireDeserializer(Pcore pcore, InputStream in) throws IOException {
+		Session session = sessions.get();
+		if(session.deserializerInUse)
+			return forInput(pcore, in);
+
+		if(session.deserializer == null) {
+			session.reader = (AbstractReader)readerOn(in);
+			session.deserializer = new DeserializerImpl(pcore, session.reader);
+		} else {
+			session.reader.reset(in);
+			session.deserializer.reset(pcore);
+		}
+		session.deserializerInUse = true;
+		return session.deserializer;
+	}
+
+	@Override
+	public void release(Deserializer deserializer) {
+		Session session = sessions.get();
+		if(session.deserializer == deserializer && session.deserializerInUse) {
+			session.deserializer.release();
+			session.reader.release();
+			session.deserializerInUse = false;
+		}
+	}
+
 	@Override
 	public DeserializerImpl forInputChunks(Pcore pcore) {
 		return new DeserializerImpl(pcore, reader());
@@ -26,9 +100,26 @@ public abstract class SerializationFactoryImpl implements SerializationFactory {
 		return new SerializerImpl(pcore, writerOn(options, out));
 	}
 
+	/**
+	 * Returns a serializer that writes to the given buffer output.
+	 *
+	 * @param pcore the pcore to use when inferring types
+	 * @param options serialization options
+	 * @param out the output
+	 * @return the serializer
+	 * @throws IOException propagated from the writer
+	 */
+	public SerializerImpl forOutput(Pcore pcore, Map<String,Object> options, ByteBufferOutput out) throws IOException {
+		return new SerializerImpl(pcore, writerOn(options, out));
+	}
+
 	protected abstract Reader reader();
 
 	protected abstract Reader readerOn(InputStream in) throws IOException;
 
 	protected abstract Writer writerOn(Map<String,Object> options, OutputStream out) throws IOException;
+
+	protected Writer writerOn(Map<String,Object> options, ByteBufferOutput out) throws IOException {
+		return writerOn(options, out.asOutputStream());
+	}
 }
@@ -25,7 +25,7 @@ import static java.lang.String.format;
 public class SerializerImpl implements Serializer {
 	private final Map<Object,Integer> objectsWritten = new IdentityHashMap<>();
 	private final Writer writer;
-	private final Pcore pcore;
+	private Pcore pcore;
 
 	public SerializerImpl(Pcore pcore, Writer writer) {
 		this.pcore = pcore;
@@ -37,6 +37,28 @@ public class SerializerImpl implements Serializer {
 		writer.finish();
 	}
 
+	@Override
+	public void reset() throws IOException {
+		objectsWritten.clear();
+		writer.reset();
+	}
+
+	/**
+	 * Reset for reuse by another session. The writer is reset separately.
+	 */
+	void reset(Pcore pcore) {
+		objectsWritten.clear();
+		this.pcore = pcore;
+	}
+
+	/**
+	 * Let go of the pcore and of the objects written so that they can be garbage collected.
+	 */
+	void release() {
+		objectsWritten.clear();
+		pcore = null;
+	}
+
 	public void startPcoreObject(String typeName, int attributeCount) throws IOException {
 		writer.write(new PcoreObjectStart(typeName, attributeCount));
 	}
@@ -25,14 +25,13 @@ public class JsonPacker extends Polymorphic<Void> implements ExtensionAwarePacke
 
 	private static final JsonFactory factory = new JsonFactory();
 	private final Map<Class<?>,Extension<?>> extensionMap = new HashMap<>();
-	private final JsonGenerator generator;
 	private final Stack<Integer> nested = new Stack<>();
+	private final boolean verbose;
+	private JsonGenerator generator;
 
 	public JsonPacker(OutputStream out, Map<String,Object> options) throws IOException {
-		generator = factory.createGenerator(new BufferedOutputStream((out)));
-		generator.writeStartArray();
-		if(get(options, "verbose", false))
-			generator.useDefaultPrettyPrinter();
+		verbose = get(options, "verbose", false);
+		startGenerator(out);
 	}
 
 	@Override
@@ -41,6 +40,23 @@ public class JsonPacker extends Polymorphic<Void> implements ExtensionAwarePacke
 		generator.flush();
 	}
 
+	@Override
+	public void reset() throws IOException {
+		nested.clear();
+		generator.writeStartArray();
+	}
+
+	@Override
+	public void reset(OutputStream out) throws IOException {
+		nested.clear();
+		startGenerator(out);
+	}
+
+	@Override
+	public void release() {
+		generator = null;
+	}
+
 	@Override
 	public <T> void registerType(byte extensionNumber, Class<T> extClass, PayloadWriterFunction<T> payloadWriterFunction) {
 		extensionMap.put(extClass, new Extension<>(extensionNumber, extClass, payloadWriterFunction));
@@ -160,4 +176,13 @@ public class JsonPacker extends Polymorphic<Void> implements ExtensionAwarePacke
 		nested.pop();
 		afterElement();
 	}
+
+	private void startGenerator(OutputStream out) throws IOException {
+		generator = factory.createGenerator(new BufferedOutputStream((out)));
+		// Messages written after a reset are separate documents
+		generator.setRootValueSeparator(null);
+		generator.writeStartArray();
+		if(verbose)
+			generator.useDefaultPrettyPrinter();
+	}
 }
@@ -1,10 +1,11 @@
 package com.puppet.pcore.impl.serialization.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.puppet.pcore.impl.serialization.ExtensionAwareUnpacker;
 import com.puppet.pcore.impl.serialization.PayloadReaderFunction;
 import com.puppet.pcore.serialization.SerializationException;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
@@ -12,16 +13,24 @@ import java.util.*;
 import static com.puppet.pcore.impl.serialization.json.JsonSerializationFactory.mapper;
 import static java.lang.String.format;
 
+/**
+ * Unpacks values from a JSON array. When created on a stream, the values are read token by token from a
+ * {@link JsonParser} and extension arrays are decoded as they are encountered, so the document is never materialized.
+ * Values given to {@link #initialize(List)} have already been parsed and are read from their iterators.
+ */
 public class JsonUnpacker implements ExtensionAwareUnpacker {
 
 	private final Stack<Iterator<?>> etorStack = new Stack<>();
 	private final Map<Byte,PayloadReaderFunction<?>> extensionMap = new HashMap<>();
+	private JsonParser parser;
+	private boolean awaitingMessage;
 
 	JsonUnpacker(InputStream in) throws IOException {
-		this(mapper.readValue(new BufferedInputStream(in), List.class));
+		reset(in);
 	}
 
 	JsonUnpacker(List<?> values) {
+		parser = null;
 		initialize(values);
 	}
 
@@ -29,10 +38,40 @@ public class JsonUnpacker implements ExtensionAwareUnpacker {
 		etorStack.push(values.iterator());
 	}
 
+	@Override
+	public void reset() throws IOException {
+		etorStack.clear();
+		if(parser != null && !awaitingMessage) {
+			// Skip what remains of the current message. The next message is expected when something is read
+			while(!parser.getParsingContext().inRoot())
+				if(parser.nextToken() == null)
+					break;
+			awaitingMessage = true;
+		}
+	}
+
+	@Override
+	public void reset(InputStream in) throws IOException {
+		etorStack.clear();
+		// The parser buffers its input so there's no need to wrap the stream
+		parser = mapper.getFactory().createParser(in);
+		awaitingMessage = true;
+		startMessage();
+	}
+
+	@Override
+	public void release() {
+		etorStack.clear();
+		parser = null;
+	}
+
 	@Override
 	public Object read() throws IOException {
 		Object obj;
 		for(; ; ) {
+			if(etorStack.isEmpty() && parser != null)
+				return readToken();
+
 			Iterator<?> etor = etorStack.lastElement();
 			if(etor.hasNext()) {
 				obj = etor.next();
@@ -50,11 +89,7 @@ public class JsonUnpacker implements ExtensionAwareUnpacker {
 			if(!extensionEtor.hasNext())
 				throw new SerializationException("Unexpected EOF while reading extended data");
 			etorStack.push(extensionEtor);
-			byte extNo = (byte)readInt();
-			PayloadReaderFunction<?> payloadReaderFunction = extensionMap.get(extNo);
-			if(payloadReaderFunction == null)
-				throw new SerializationException(format("Invalid input. %d is not a valid extension number", extNo));
-			obj = payloadReaderFunction.apply(null);
+			obj = readExtension((byte)readInt());
 		}
 		return obj;
 	}
@@ -95,4 +130,58 @@ public class JsonUnpacker implements ExtensionAwareUnpacker {
 	public void registerType(byte extensionNumber, PayloadReaderFunction<?> payloadReaderFunction) {
 		extensionMap.put(extensionNumber, payloadReaderFunction);
 	}
+
+	private Object readExtension(byte extNo) throws IOException {
+		PayloadReaderFunction<?> payloadReaderFunction = extensionMap.get(extNo);
+		if(payloadReaderFunction == null)
+			throw new SerializationException(format("Invalid input. %d is not a valid extension number", extNo));
+		return payloadReaderFunction.apply(null);
+	}
+
+	private void startMessage() throws IOException {
+		if(parser.nextToken() != JsonToken.START_ARRAY)
+			throw new SerializationException("Invalid input. Expected JSON array");
+		awaitingMessage = false;
+	}
+
+	private Object readToken() throws IOException {
+		if(awaitingMessage)
+			startMessage();
+		for(; ; ) {
+			JsonToken token = parser.nextToken();
+			if(token == null)
+				throw new SerializationException("Unexpected EOF while reading JSON data");
+
+			switch(token) {
+			case END_ARRAY:
+				// End of an extension or of the elements of a sequence that started with one
+				continue;
+			case START_ARRAY:
+				token = parser.nextToken();
+				if(token == JsonToken.END_ARRAY || token == null)
+					throw new SerializationException("Unexpected EOF while reading extended data");
+				if(token != JsonToken.VALUE_NUMBER_INT)
+					throw new SerializationException(format("Invalid input. Expected extension number, got '%s'", parser.getText()));
+				return readExtension((byte)parser.getIntValue());
+			case START_OBJECT:
+				return parser.readValueAs(LinkedHashMap.class);
+			case VALUE_STRING:
+				return parser.getText();
+			case VALUE_NUMBER_INT:
+				return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+						? parser.getBigIntegerValue()
+						: (Object)parser.getLongValue();
+			case VALUE_NUMBER_FLOAT:
+				return parser.getDoubleValue();
+			case VALUE_TRUE:
+				return Boolean.TRUE;
+			case VALUE_FALSE:
+				return Boolean.FALSE;
+			case VALUE_NULL:
+				return null;
+			default:
+				throw new SerializationException(format("Invalid input. Unexpected JSON token %s", token));
+			}
+		}
+	}
 }
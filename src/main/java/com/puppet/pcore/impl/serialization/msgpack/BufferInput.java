@@ -0,0 +1,96 @@
+package com.puppet.pcore.impl.serialization.msgpack;
+
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferInput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Feeds an unpacker with the content of a {@link ByteBuffer} or of a {@link FileChannel} without going through an
+ * {@link java.io.InputStream}. A file is read by mapping consecutive windows of it into memory.
+ * <p>
+ * Buffers that are backed by an array are read in place. So are direct and mapped buffers on platforms where
+ * msgpack can address native memory. On other platforms, direct buffers are copied in chunks to an array that is
+ * reused for all chunks, so heap usage doesn't depend on the size of the input.
+ */
+final class BufferInput implements MessageBufferInput {
+	static final long WINDOW_SIZE = 1L << 30;
+	static final int CHUNK_SIZE = 8192;
+	static final boolean WRAPS_DIRECT_BUFFERS = wrapsDirectBuffers();
+
+	private final FileChannel channel;
+	private final long windowSize;
+	private final long channelEnd;
+	private long channelPosition;
+	private ByteBuffer current;
+	private byte[] chunk;
+
+	/**
+	 * Creates an input that reads the remaining bytes of the given buffer. The position of the buffer is not changed.
+	 *
+	 * @param buffer the buffer to read
+	 */
+	BufferInput(ByteBuffer buffer) {
+		channel = null;
+		windowSize = 0;
+		channelEnd = 0;
+		current = buffer.duplicate();
+	}
+
+	/**
+	 * Creates an input that reads the given channel from its current position to its end. The position of the channel is
+	 * not changed.
+	 *
+	 * @param channel the channel to read
+	 * @param windowSize the maximum number of bytes to map at a time
+	 */
+	BufferInput(FileChannel channel, long windowSize) throws IOException {
+		this.channel = channel;
+		this.windowSize = windowSize;
+		channelPosition = channel.position();
+		channelEnd = channel.size();
+	}
+
+	@Override
+	public MessageBuffer next() throws IOException {
+		while(current == null || !current.hasRemaining()) {
+			if(channel == null || channelPosition >= channelEnd)
+				return null;
+			long size = Math.min(windowSize, channelEnd - channelPosition);
+			current = channel.map(FileChannel.MapMode.READ_ONLY, channelPosition, size);
+			channelPosition += size;
+		}
+
+		ByteBuffer buffer = current;
+		MessageBuffer result;
+		if(buffer.hasArray())
+			result = MessageBuffer.wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		else if(buffer.isDirect() && WRAPS_DIRECT_BUFFERS)
+			result = MessageBuffer.wrap(buffer.slice());
+		else {
+			if(chunk == null)
+				chunk = new byte[CHUNK_SIZE];
+			int len = Math.min(CHUNK_SIZE, buffer.remaining());
+			buffer.get(chunk, 0, len);
+			return MessageBuffer.wrap(chunk, 0, len);
+		}
+		buffer.position(buffer.limit());
+		return result;
+	}
+
+	@Override
+	public void close() {
+		// The buffer or channel is owned by the caller
+	}
+
+	private static boolean wrapsDirectBuffers() {
+		try {
+			MessageBuffer.wrap(ByteBuffer.allocateDirect(1));
+			return true;
+		} catch(RuntimeException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.puppet.pcore.impl.serialization.msgpack;
+
+import com.puppet.pcore.impl.serialization.ByteBufferOutput;
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferOutput;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lets a packer write to a {@link ByteBufferOutput}. Heap buffers, and direct buffers on platforms where msgpack can
+ * address native memory, are handed to the packer to write in place when they have room for what the packer is about
+ * to write. Otherwise, the packer writes to an array that is reused for all writes and copied to the output, possibly
+ * spanning buffers, each time the packer flushes it.
+ *
+ * @see BufferInput
+ */
+final class BufferOutput implements MessageBufferOutput {
+	private final ByteBufferOutput out;
+	private ByteBuffer reserved;
+	private byte[] chunk;
+	private MessageBuffer chunkBuffer;
+
+	BufferOutput(ByteBufferOutput out) {
+		this.out = out;
+	}
+
+	@Override
+	public MessageBuffer next(int minimumSize) {
+		ByteBuffer buffer = out.writable();
+		if(buffer.remaining() >= minimumSize) {
+			if(buffer.hasArray()) {
+				reserved = buffer;
+				return MessageBuffer.wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			}
+			if(buffer.isDirect() && BufferInput.WRAPS_DIRECT_BUFFERS) {
+				reserved = buffer;
+				return MessageBuffer.wrap(buffer.slice());
+			}
+		}
+
+		reserved = null;
+		if(chunk == null || chunk.length < minimumSize) {
+			chunk = new byte[Math.max(BufferInput.CHUNK_SIZE, minimumSize)];
+			chunkBuffer = MessageBuffer.wrap(chunk);
+		}
+		return chunkBuffer;
+	}
+
+	@Override
+	public void writeBuffer(int length) {
+		if(reserved == null)
+			out.write(chunk, 0, length);
+		else {
+			reserved.position(reserved.position() + length);
+			reserved = null;
+		}
+	}
+
+	@Override
+	public void write(byte[] buffer, int offset, int length) {
+		out.write(buffer, offset, length);
+	}
+
+	@Override
+	public void add(byte[] buffer, int offset, int length) {
+		out.write(buffer, offset, length);
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+}
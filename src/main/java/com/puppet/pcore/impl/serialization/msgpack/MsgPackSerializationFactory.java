@@ -1,15 +1,48 @@
 package com.puppet.pcore.impl.serialization.msgpack;
 
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.impl.serialization.ByteBufferOutput;
+import com.puppet.pcore.impl.serialization.DeserializerImpl;
 import com.puppet.pcore.impl.serialization.SerializationFactoryImpl;
 import com.puppet.pcore.serialization.Reader;
 import com.puppet.pcore.serialization.Writer;
 import org.msgpack.core.MessagePack;
+import org.msgpack.core.buffer.InputStreamBufferInput;
+import org.msgpack.core.buffer.OutputStreamBufferOutput;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 
 public class MsgPackSerializationFactory extends SerializationFactoryImpl {
+	/**
+	 * Returns a deserializer that reads the remaining bytes of the given buffer. The buffer may be a heap buffer, a
+	 * direct buffer, or a buffer that maps a file. The buffer is read in place and its position is not changed.
+	 *
+	 * @param pcore the pcore to use when resolving types
+	 * @param buffer the buffer to read
+	 * @return the deserializer
+	 */
+	public DeserializerImpl forInput(Pcore pcore, ByteBuffer buffer) {
+		return new DeserializerImpl(pcore, readerOn(buffer));
+	}
+
+	/**
+	 * Returns a deserializer that reads the given channel from its current position to its end. The file is mapped into
+	 * memory in windows of at most 1 GiB rather than read through the heap, so files of any size can be read. The
+	 * position of the channel is not changed and the channel is not closed by the deserializer.
+	 *
+	 * @param pcore the pcore to use when resolving types
+	 * @param channel the channel to read
+	 * @return the deserializer
+	 */
+	public DeserializerImpl forInput(Pcore pcore, FileChannel channel) throws IOException {
+		return new DeserializerImpl(pcore, readerOn(channel));
+	}
+
 	@Override
 	protected Reader reader() {
 		throw new UnsupportedOperationException(getClass().getName() + " does not support partial read of data chunks");
@@ -17,11 +50,24 @@ public class MsgPackSerializationFactory extends SerializationFactoryImpl {
 
 	@Override
 	public Reader readerOn(InputStream in) {
-		return new MsgPackReader(new MsgUnpacker(MessagePack.newDefaultUnpacker(in)));
+		return new MsgPackReader(new MsgUnpacker(new InputStreamBufferInput(in)));
+	}
+
+	public Reader readerOn(ByteBuffer buffer) {
+		return new MsgPackReader(new MsgUnpacker(MessagePack.newDefaultUnpacker(new BufferInput(buffer))));
+	}
+
+	public Reader readerOn(FileChannel channel) throws IOException {
+		return new MsgPackReader(new MsgUnpacker(MessagePack.newDefaultUnpacker(new BufferInput(channel, BufferInput.WINDOW_SIZE))));
 	}
 
 	@Override
 	public Writer writerOn(Map<String,Object> options, OutputStream out) {
-		return new MsgPackWriter(options, new MsgPacker(MessagePack.newDefaultPacker(out)));
+		return new MsgPackWriter(options, new MsgPacker(new OutputStreamBufferOutput(out)));
+	}
+
+	@Override
+	public Writer writerOn(Map<String,Object> options, ByteBufferOutput out) {
+		return new MsgPackWriter(options, new MsgPacker(MessagePack.newDefaultPacker(new BufferOutput(out))));
 	}
 }
@@ -3,18 +3,16 @@ package com.puppet.pcore.impl.serialization.msgpack;
 import com.puppet.pcore.impl.serialization.AbstractWriter;
 import com.puppet.pcore.impl.serialization.ExtensionAwarePacker;
 import com.puppet.pcore.impl.serialization.IOConsumer;
-import org.msgpack.core.MessageBufferPacker;
-import org.msgpack.core.MessagePack;
 
 import java.io.IOException;
 import java.util.Map;
 
 public class MsgPackWriter extends AbstractWriter {
-	private final MsgPacker extensionPacker;
+	private final MsgPacker packer;
 
-	MsgPackWriter(Map<String,Object> options, ExtensionAwarePacker packer) {
+	MsgPackWriter(Map<String,Object> options, MsgPacker packer) {
 		super(options, packer);
-		extensionPacker = new MsgPacker(MessagePack.newDefaultBufferPacker());
+		this.packer = packer;
 	}
 
 	@Override
@@ -24,10 +22,19 @@ public class MsgPackWriter extends AbstractWriter {
 
 	@Override
 	protected byte[] buildPayload(IOConsumer<ExtensionAwarePacker> consumer) throws IOException {
-		MessageBufferPacker mp = (MessageBufferPacker)(extensionPacker).packer;
-		mp.clear();
-		consumer.accept(extensionPacker);
-		extensionPacker.flush();
-		return mp.toByteArray();
+		packer.writeBufferedPayload(consumer);
+		return null;
+	}
+
+	@Override
+	protected byte[] buildIntPayload(long value) throws IOException {
+		packer.writeIntPayload(value);
+		return null;
+	}
+
+	@Override
+	protected byte[] buildIntPayload(long first, long second) throws IOException {
+		packer.writeIntPayload(first, second);
+		return null;
 	}
 }
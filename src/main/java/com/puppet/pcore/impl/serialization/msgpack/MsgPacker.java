@@ -2,12 +2,17 @@ package com.puppet.pcore.impl.serialization.msgpack;
 
 import com.puppet.pcore.impl.Polymorphic;
 import com.puppet.pcore.impl.serialization.ExtensionAwarePacker;
+import com.puppet.pcore.impl.serialization.IOConsumer;
 import com.puppet.pcore.impl.serialization.PayloadWriterFunction;
 import com.puppet.pcore.serialization.SerializationException;
 import com.puppet.pcore.impl.serialization.extension.Extension;
+import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessagePacker;
+import org.msgpack.core.buffer.OutputStreamBufferOutput;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,16 +21,51 @@ public class MsgPacker extends Polymorphic<Void> implements ExtensionAwarePacker
 	private static final DispatchMap dispatchMap = initPolymorphicDispatch(MsgPacker.class, "_write");
 	final MessagePacker packer;
 	private final Map<Class<?>,Extension<?>> extensionMap = new HashMap<>();
+	private byte extensionNumber;
+	private PayloadBuffer payloadBuffer;
+	private MsgPacker payloadPacker;
+	private OutputStreamBufferOutput streamOutput;
 
 	public MsgPacker(MessagePacker packer) {
 		this.packer = packer;
 	}
 
+	MsgPacker(OutputStreamBufferOutput streamOutput) {
+		this(MessagePack.newDefaultPacker(streamOutput));
+		this.streamOutput = streamOutput;
+	}
+
 	@Override
 	public void flush() throws IOException {
 		packer.flush();
 	}
 
+	@Override
+	public void reset() {
+		// Nothing is buffered once the packer has been flushed
+	}
+
+	@Override
+	public void reset(OutputStream out) throws IOException {
+		if(streamOutput == null) {
+			streamOutput = new OutputStreamBufferOutput(out);
+			packer.reset(streamOutput);
+		} else
+			streamOutput.reset(out);
+	}
+
+	@Override
+	public void release() {
+		if(streamOutput != null) {
+			try {
+				streamOutput.reset(null);
+			} catch(IOException e) {
+				// Swapping the stream does no I/O
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
 	@Override
 	public <T> void registerType(byte extensionNumber, Class<T> extClass, PayloadWriterFunction<T> payloadWriterFunction) {
 		extensionMap.put(extClass, new Extension<>(extensionNumber, extClass, payloadWriterFunction));
@@ -72,9 +112,12 @@ public class MsgPacker extends Polymorphic<Void> implements ExtensionAwarePacker
 		@SuppressWarnings("unchecked") Extension<Object> ed = (Extension<Object>)extensionMap.get(val.getClass());
 		if(ed == null)
 			throw new SerializationException(String.format("Unable to serialize a %s", val.getClass().getName()));
+		extensionNumber = ed.number;
 		@SuppressWarnings("unchecked") byte[] bytes = ed.payloadWriterFunction.apply(val);
-		packer.packExtensionTypeHeader(ed.number, bytes.length);
-		packer.addPayload(bytes);
+		if(bytes != null) {
+			packer.packExtensionTypeHeader(ed.number, bytes.length);
+			packer.addPayload(bytes);
+		}
 	}
 
 	void _write(String val) throws IOException {
@@ -117,4 +160,63 @@ public class MsgPacker extends Polymorphic<Void> implements ExtensionAwarePacker
 		packer.packBinaryHeader(val.length);
 		packer.addPayload(val);
 	}
+
+	/**
+	 * Writes the extension header and a payload that consists of one integer. The size of the payload is computed up
+	 * front so the integer is written directly to the output.
+	 *
+	 * @param value the integer
+	 */
+	void writeIntPayload(long value) throws IOException {
+		packer.packExtensionTypeHeader(extensionNumber, intSize(value));
+		packer.packLong(value);
+	}
+
+	/**
+	 * Writes the extension header and a payload that consists of two integers.
+	 *
+	 * @param first the first integer
+	 * @param second the second integer
+	 * @see #writeIntPayload(long)
+	 */
+	void writeIntPayload(long first, long second) throws IOException {
+		packer.packExtensionTypeHeader(extensionNumber, intSize(first) + intSize(second));
+		packer.packLong(first);
+		packer.packLong(second);
+	}
+
+	/**
+	 * Writes the extension header and a payload of variable size. The payload is built in a buffer that is reused for
+	 * all payloads and then copied to the output.
+	 *
+	 * @param consumer consumer that writes the payload
+	 */
+	void writeBufferedPayload(IOConsumer<ExtensionAwarePacker> consumer) throws IOException {
+		if(payloadPacker == null) {
+			payloadBuffer = new PayloadBuffer();
+			payloadPacker = new MsgPacker(MessagePack.newDefaultPacker(payloadBuffer));
+		}
+		byte number = extensionNumber;
+		payloadBuffer.clear();
+		consumer.accept(payloadPacker);
+		payloadPacker.flush();
+		packer.packExtensionTypeHeader(number, payloadBuffer.size());
+		packer.writePayload(payloadBuffer.array(), 0, payloadBuffer.size());
+	}
+
+	/**
+	 * Returns the number of bytes that {@link MessagePacker#packLong(long)} uses to encode the given value.
+	 */
+	static int intSize(long value) {
+		if(value < -(1L << 5)) {
+			if(value < -(1L << 15))
+				return value < -(1L << 31) ? 9 : 5;
+			return value < -(1L << 7) ? 3 : 2;
+		}
+		if(value < (1L << 7))
+			return 1;
+		if(value < (1L << 16))
+			return value < (1L << 8) ? 2 : 3;
+		return value < (1L << 32) ? 5 : 9;
+	}
 }
@@ -3,80 +3,91 @@ package com.puppet.pcore.impl.serialization.msgpack;
 import com.puppet.pcore.impl.serialization.ExtensionAwareUnpacker;
 import com.puppet.pcore.impl.serialization.PayloadReaderFunction;
 import com.puppet.pcore.serialization.SerializationException;
+import org.msgpack.core.ExtensionTypeHeader;
+import org.msgpack.core.MessageFormat;
+import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.ExtensionValue;
-import org.msgpack.value.Variable;
+import org.msgpack.core.buffer.InputStreamBufferInput;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 
 import static java.lang.String.format;
 
+/**
+ * Unpacks values directly from the buffers of a {@link MessageUnpacker}. Extension payloads are read in place,
+ * right after their header, and strings are decoded without first being copied to an intermediate array.
+ */
 public class MsgUnpacker implements ExtensionAwareUnpacker {
 
 	final MessageUnpacker unpacker;
 	private final Map<Byte,PayloadReaderFunction<?>> extensionMap = new HashMap<>();
-	private final Variable variable = new Variable();
+	private InputStreamBufferInput streamInput;
 
 	public MsgUnpacker(MessageUnpacker unpacker) {
 		this.unpacker = unpacker;
 	}
 
+	MsgUnpacker(InputStreamBufferInput streamInput) {
+		this(MessagePack.newDefaultUnpacker(streamInput));
+		this.streamInput = streamInput;
+	}
+
 	@Override
 	public Object read() throws IOException {
-		next();
-		switch(variable.getValueType()) {
+		MessageFormat mf = nextFormat();
+		switch(mf.getValueType()) {
 		case ARRAY:
 		case MAP:
 			// TODO:
+			unpacker.skipValue();
 			return null;
 		case BINARY:
-			return variable.asRawValue().asByteArray();
+			return unpacker.readPayload(unpacker.unpackBinaryHeader());
 		case BOOLEAN:
-			return variable.asBooleanValue().getBoolean();
+			return unpacker.unpackBoolean();
 		case EXTENSION:
-			ExtensionValue ev = variable.asExtensionValue();
-			PayloadReaderFunction<?> plr = extensionMap.get(ev.getType());
-			if(plr == null)
-				throw new SerializationException(format("Invalid input. %d is not a valid extension number", ev.getType()));
-			return plr.apply(ev.getData());
+			return readExtension(unpacker.unpackExtensionTypeHeader());
 		case FLOAT:
-			return variable.asFloatValue().toDouble();
+			return unpacker.unpackDouble();
 		case INTEGER:
-			return variable.asIntegerValue().toLong();
+			return mf == MessageFormat.UINT64 ? unpacker.unpackBigInteger().longValue() : unpacker.unpackLong();
 		case NIL:
+			unpacker.unpackNil();
 			return null;
 		case STRING:
-			return variable.asStringValue().asString();
+			return unpacker.unpackString();
 		default:
-			throw new SerializationException(format("Invalid input. Unknown value type '%s'", variable.getValueType().name()));
+			throw new SerializationException(format("Invalid input. Unknown value type '%s'", mf.getValueType().name()));
 		}
 	}
 
 	@Override
 	public byte[] readBytes() throws IOException {
-		next();
-		return variable.asRawValue().asByteArray();
+		nextFormat();
+		return unpacker.readPayload(unpacker.unpackBinaryHeader());
 	}
 
 	@Override
 	public int readInt() throws IOException {
-		next();
-		return variable.asIntegerValue().asInt();
+		nextFormat();
+		return unpacker.unpackInt();
 	}
 
 	@Override
 	public long readLong() throws IOException {
-		next();
-		return variable.asIntegerValue().asLong();
+		nextFormat();
+		return unpacker.unpackLong();
 	}
 
 	@Override
 	public String readString() throws IOException {
-		next();
-		return variable.asStringValue().asString();
+		nextFormat();
+		return unpacker.unpackString();
 	}
 
 	@Override
@@ -84,10 +95,48 @@ public class MsgUnpacker implements ExtensionAwareUnpacker {
 		extensionMap.put(extensionNumber, payloadReaderFunction);
 	}
 
-	private void next() throws IOException {
+	@Override
+	public void reset() {
+		// Messages are not delimited. The reader skips what remains of the current value
+	}
+
+	@Override
+	public void reset(InputStream in) throws IOException {
+		if(streamInput == null)
+			streamInput = new InputStreamBufferInput(in);
+		else
+			streamInput.reset(in);
+		unpacker.reset(streamInput);
+	}
+
+	@Override
+	public void release() {
+		if(streamInput != null) {
+			try {
+				streamInput.reset(null);
+			} catch(IOException e) {
+				// Swapping the stream does no I/O
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private Object readExtension(ExtensionTypeHeader header) throws IOException {
+		PayloadReaderFunction<?> plr = extensionMap.get(header.getType());
+		if(plr == null)
+			throw new SerializationException(format("Invalid input. %d is not a valid extension number", header.getType()));
+
+		long end = unpacker.getTotalReadBytes() + header.getLength();
+		Object value = plr.apply(null);
+		if(unpacker.getTotalReadBytes() != end)
+			throw new SerializationException(format("Invalid input. Payload of extension %d does not have the expected length %d",
+					header.getType(), header.getLength()));
+		return value;
+	}
+
+	private MessageFormat nextFormat() throws IOException {
 		if(!unpacker.hasNext())
 			throw new EOFException();
-		unpacker.unpackValue(variable);
+		return unpacker.getNextFormat();
 	}
 }
-
@@ -0,0 +1,68 @@
+package com.puppet.pcore.impl.serialization.msgpack;
+
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferOutput;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer that collects one extension payload at a time. The buffer is cleared and reused for each payload so
+ * that writing a payload doesn't allocate anything once the buffer has grown to fit the largest payload.
+ */
+final class PayloadBuffer implements MessageBufferOutput {
+	private static final int INITIAL_SIZE = 256;
+
+	private byte[] bytes = new byte[INITIAL_SIZE];
+	private MessageBuffer wholeBuffer = MessageBuffer.wrap(bytes);
+	private int size;
+
+	byte[] array() {
+		return bytes;
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	@Override
+	public MessageBuffer next(int minimumSize) {
+		ensureCapacity(minimumSize);
+		return size == 0 ? wholeBuffer : MessageBuffer.wrap(bytes, size, bytes.length - size);
+	}
+
+	@Override
+	public void writeBuffer(int length) {
+		size += length;
+	}
+
+	@Override
+	public void write(byte[] buffer, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(buffer, offset, bytes, size, length);
+		size += length;
+	}
+
+	@Override
+	public void add(byte[] buffer, int offset, int length) {
+		write(buffer, offset, length);
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+
+	private void ensureCapacity(int length) {
+		if(bytes.length - size < length) {
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+			wholeBuffer = MessageBuffer.wrap(bytes);
+		}
+	}
+}
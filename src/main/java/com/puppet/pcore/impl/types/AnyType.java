@@ -26,8 +26,28 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 		}
 	}
 
+	private static class UnsettledTypeFinder implements Visitor {
+		boolean unsettled = false;
+
+		@Override
+		public boolean skip(ModelObject visitable) {
+			// Nothing more to find once an unsettled type is found or below a type that is known to be settled
+			return unsettled || visitable instanceof AnyType && ((AnyType)visitable).settled;
+		}
+
+		@Override
+		public void visit(ModelObject type, RecursionGuard guard) {
+			if(!unsettled && (type instanceof TypeReferenceType
+					|| type instanceof TypeAliasType && !((TypeAliasType)type).isResolved()
+					|| type instanceof MetaType && !((MetaType)type).isResolved()))
+				unsettled = true;
+		}
+	}
+
 	static final AnyType DEFAULT = new AnyType();
 	private static ObjectType ptype;
+	private volatile TypeChecker typeChecker;
+	private volatile boolean settled;
 
 	AnyType() {
 	}
@@ -89,7 +109,9 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 
 	@Override
 	public final boolean isAssignable(Type t) {
-		return isAssignable((AnyType)t, null);
+		Pcore pcore = pcore();
+		AssignabilityCache cache = pcore == null ? null : pcore.assignabilityCache();
+		return cache == null ? isAssignable((AnyType)t, null) : cache.isAssignable(this, (AnyType)t);
 	}
 
 	public boolean isEqualityIncludeType() {
@@ -129,6 +151,35 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 		return this;
 	}
 
+	/**
+	 * Assigns the pcore that this type will be resolved in unless one has been assigned already. Types that
+	 * don't need a pcore for their resolution ignore this.
+	 *
+	 * @param pcore the pcore to use when resolving
+	 */
+	void assignPcore(Pcore pcore) {
+	}
+
+	/**
+	 * @return the expression or hash that this type will be resolved from, or {@code null} if there is no such thing
+	 */
+	Object unresolvedForm() {
+		return null;
+	}
+
+	/**
+	 * Returns a checker that has been compiled from this type. The checker is compiled on first request and
+	 * then cached on the type.
+	 *
+	 * @return the compiled checker
+	 */
+	public TypeChecker typeChecker() {
+		TypeChecker checker = typeChecker;
+		if(checker == null)
+			typeChecker = checker = TypeChecker.compile(this);
+		return checker;
+	}
+
 	public ParameterInfo parameterInfo() {
 		throw new PcoreException(format("Creation of new instance of type '%s' is not supported", name()));
 	}
@@ -229,10 +280,17 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 
 		if(t instanceof TypeAliasType) {
 			if(t.isRecursive()) {
-				RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-				// A recursion detected both in self and other means that other is assignable
-				// to self. This point would not have been reached otherwise
-				return g.withThat(t, state -> state == RecursionGuard.SELF_RECURSION_IN_BOTH || isAssignable(t.resolvedType(), g));
+				RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+				int token = g.enterThat(t);
+				try {
+					// A recursion detected both in self and other means that other is assignable
+					// to self. This point would not have been reached otherwise
+					return g.state() == RecursionGuard.SELF_RECURSION_IN_BOTH || isAssignable(t.resolvedType(), g);
+				} finally {
+					g.exitThat(t, token);
+					if(guard == null)
+						g.release();
+				}
 			}
 			return isAssignable(t.resolvedType(), guard);
 		}
@@ -274,10 +332,40 @@ public class AnyType extends ModelObject implements Type, PuppetObject {
 		return isInstance(o, guard) ? 1 : -1;
 	}
 
+	/**
+	 * Answers the question if an instance of the given class could be an instance of this type. A <code>false</code>
+	 * answer is definite whereas a <code>true</code> answer only means that the value must be checked.
+	 *
+	 * @param cls the class of the value or <code>null</code> for undef
+	 * @return <code>false</code> if no instance of the given class can be an instance of this type
+	 */
+	boolean couldBeInstance(Class<?> cls) {
+		return true;
+	}
+
+	static boolean isA(Class<?> cls, Class<?> superClass) {
+		return cls != null && superClass.isAssignableFrom(cls);
+	}
+
 	boolean isRecursive() {
 		return false;
 	}
 
+	/**
+	 * A type is settled when it contains no type references, no unresolved aliases, and no object types
+	 * that are unresolved or in the process of being resolved. A settled type will never change.
+	 *
+	 * @return {@code true} if this type is settled
+	 */
+	final boolean isSettled() {
+		if(!settled) {
+			UnsettledTypeFinder finder = new UnsettledTypeFinder();
+			accept(finder, null);
+			settled = !finder.unsettled;
+		}
+		return settled;
+	}
+
 	boolean isUnsafeAssignable(AnyType type, RecursionGuard guard) {
 		return true;
 	}
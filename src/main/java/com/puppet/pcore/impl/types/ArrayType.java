@@ -112,11 +112,23 @@ public class ArrayType extends CollectionType {
 		return new ArrayType(type, size, resolved);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, List.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof List<?>) {
 			List<?> lo = (List<?>)o;
-			return size.isInstance(lo.size(), guard) && (type.equals(AnyType.DEFAULT) || all(lo, (v) -> type.isInstance(v, guard)));
+			if(!size.isInstance(lo.size(), guard))
+				return false;
+			if(type.equals(AnyType.DEFAULT))
+				return true;
+			ParallelValidator pv = lo instanceof RandomAccess ? ParallelValidator.forSize(lo.size(), guard) : null;
+			return pv == null
+					? all(lo, (v) -> type.isInstance(v, guard))
+					: pv.all(lo.size(), idx -> type.isInstance(lo.get(idx)));
 		}
 		return false;
 	}
@@ -0,0 +1,99 @@
+package com.puppet.pcore.impl.types;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of results from {@link AnyType#isAssignable(com.puppet.pcore.Type)}, keyed on the identity of
+ * the expected and the actual type.
+ * <p>
+ * The cache is a fixed size table where each pair of types hashes to one slot. A new result simply replaces
+ * whatever result the slot held before so reads and writes are lock free and the memory used is bounded.
+ * <p>
+ * Results are only stored when both types are settled, i.e. when neither of them contain type references,
+ * unresolved aliases, or object types that are still being resolved. A type never becomes unsettled again
+ * once it is settled so a stored result remains valid for as long as the types exist.
+ */
+public class AssignabilityCache {
+	private static final class Entry {
+		final AnyType expected;
+		final AnyType actual;
+		final boolean result;
+
+		Entry(AnyType expected, AnyType actual, boolean result) {
+			this.expected = expected;
+			this.actual = actual;
+			this.result = result;
+		}
+	}
+
+	private final AtomicReferenceArray<Entry> entries;
+	private final int mask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param maxEntries the maximum number of entries. Will be rounded up to the nearest power of two
+	 */
+	public AssignabilityCache(int maxEntries) {
+		if(maxEntries < 1)
+			throw new IllegalArgumentException("Assignability cache must have room for at least one entry");
+		int size = Integer.highestOneBit(maxEntries);
+		if(size < maxEntries)
+			size <<= 1;
+		entries = new AtomicReferenceArray<>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * Remove all entries from the cache. Hit and miss counters are not affected.
+	 */
+	public void clear() {
+		for(int idx = 0; idx <= mask; ++idx)
+			entries.set(idx, null);
+	}
+
+	/**
+	 * @return the number of lookups that were answered by the cache
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that required a computation
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the maximum number of entries that this cache can hold
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+
+	boolean isAssignable(AnyType expected, AnyType actual) {
+		if(actual == null)
+			return false;
+
+		int idx = slot(expected, actual);
+		Entry entry = entries.get(idx);
+		if(entry != null && entry.expected == expected && entry.actual == actual) {
+			hits.increment();
+			return entry.result;
+		}
+
+		misses.increment();
+		boolean result = expected.isAssignable(actual, null);
+		if(expected.isSettled() && actual.isSettled())
+			entries.set(idx, new Entry(expected, actual, result));
+		return result;
+	}
+
+	private int slot(AnyType expected, AnyType actual) {
+		int h = System.identityHashCode(expected) * 31 + System.identityHashCode(actual);
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
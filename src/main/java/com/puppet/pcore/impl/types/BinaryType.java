@@ -103,6 +103,11 @@ public class BinaryType extends AnyType {
 		pcore.registerImpl(ptype, binaryTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Binary.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof Binary;
@@ -31,6 +31,11 @@ public class BooleanType extends ScalarDataType {
 		pcore.registerImpl(ptype, booleanTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == Boolean.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof Boolean;
@@ -74,6 +74,11 @@ public class CollectionType extends TypeContainerType {
 		return true;
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, List.class) || isA(cls, Map.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return (o instanceof Map<?,?> && size.isInstance(((Map<?,?>)o).size()))
@@ -0,0 +1,191 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Default;
+import com.puppet.pcore.Sensitive;
+import com.puppet.pcore.regex.Regexp;
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.semver.VersionRange;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Hand written instance checks for the built in <code>Data</code>, <code>RichData</code>, and <code>RichDataKey</code>
+ * aliases. The checks produce the same result as the generic alias check but walk nested arrays and hashes
+ * using an explicit stack instead of recursion, so the depth of a value doesn't affect the depth of the call
+ * stack and no {@link ModelObject.RecursionGuard} is needed.
+ * <p>
+ * A value that contains itself is never an instance. The generic check reaches the same conclusion for
+ * arrays and overflows the stack for hashes.
+ */
+abstract class DataValidator {
+	static final DataValidator DATA = new DataValidator() {
+		@Override
+		boolean isKey(Object key) {
+			return key instanceof String;
+		}
+
+		@Override
+		boolean isLeaf(Object o) {
+			return o == null || isScalarData(o);
+		}
+	};
+
+	static final DataValidator RICH_DATA_KEY = new DataValidator() {
+		@Override
+		boolean isInstance(Object o) {
+			return isKey(o);
+		}
+
+		@Override
+		boolean isKey(Object key) {
+			return key instanceof String || key instanceof Number;
+		}
+
+		@Override
+		boolean isLeaf(Object o) {
+			return isKey(o);
+		}
+	};
+
+	static final DataValidator RICH_DATA = new DataValidator() {
+		@Override
+		boolean isKey(Object key) {
+			return key instanceof String || key instanceof Number;
+		}
+
+		@Override
+		boolean isLeaf(Object o) {
+			if(o == null
+					|| isScalarData(o)
+					|| o instanceof Regexp
+					|| o instanceof Instant
+					|| o instanceof Duration
+					|| o instanceof Version
+					|| o instanceof VersionRange
+					|| o instanceof Binary
+					|| o instanceof Sensitive
+					|| o instanceof Default)
+				return true;
+			return TypeType.DEFAULT.isInstance(o) || TypeSetType.DEFAULT.isInstance(o);
+		}
+	};
+
+	/**
+	 * Depth at which the check for values that contain themselves switches from a linear scan of the
+	 * stack to a lookup in an identity map.
+	 */
+	private static final int LINEAR_SCAN_DEPTH = 32;
+
+	static boolean isScalarData(Object o) {
+		return o instanceof String || o instanceof Number || o instanceof Boolean;
+	}
+
+	/**
+	 * @param key a hash key
+	 * @return <code>true</code> if the key is valid
+	 */
+	abstract boolean isKey(Object key);
+
+	/**
+	 * @param o a value that is neither a {@link List} nor a {@link Map}
+	 * @return <code>true</code> if the value is valid
+	 */
+	abstract boolean isLeaf(Object o);
+
+	boolean isInstance(Object o) {
+		if(!(o instanceof List<?> || o instanceof Map<?,?>))
+			return isLeaf(o);
+
+		Object[] containers = new Object[LINEAR_SCAN_DEPTH];
+		Iterator<?>[] iterators = new Iterator<?>[LINEAR_SCAN_DEPTH];
+		int[] positions = new int[LINEAR_SCAN_DEPTH];
+		IdentityHashMap<Object,Boolean> path = null;
+
+		int top = 0;
+		containers[0] = o;
+		iterators[0] = iteratorFor(o);
+
+		while(top >= 0) {
+			Object container = containers[top];
+			Iterator<?> iterator = iterators[top];
+			Object element;
+			if(iterator == null) {
+				List<?> list = (List<?>)container;
+				int pos = positions[top];
+				if(pos >= list.size()) {
+					if(path != null)
+						path.remove(container);
+					containers[top--] = null;
+					continue;
+				}
+				positions[top] = pos + 1;
+				element = list.get(pos);
+			} else {
+				if(!iterator.hasNext()) {
+					if(path != null)
+						path.remove(container);
+					containers[top] = null;
+					iterators[top--] = null;
+					continue;
+				}
+				element = iterator.next();
+				if(container instanceof Map<?,?>) {
+					Map.Entry<?,?> entry = (Map.Entry<?,?>)element;
+					if(!isKey(entry.getKey()))
+						return false;
+					element = entry.getValue();
+				}
+			}
+
+			if(!(element instanceof List<?> || element instanceof Map<?,?>)) {
+				if(!isLeaf(element))
+					return false;
+				continue;
+			}
+
+			if(path == null) {
+				for(int idx = 0; idx <= top; ++idx)
+					if(containers[idx] == element)
+						return false;
+			} else if(path.containsKey(element))
+				return false;
+
+			if(++top == containers.length) {
+				int newLength = top * 2;
+				Object[] newContainers = new Object[newLength];
+				System.arraycopy(containers, 0, newContainers, 0, top);
+				containers = newContainers;
+				Iterator<?>[] newIterators = new Iterator<?>[newLength];
+				System.arraycopy(iterators, 0, newIterators, 0, top);
+				iterators = newIterators;
+				int[] newPositions = new int[newLength];
+				System.arraycopy(positions, 0, newPositions, 0, top);
+				positions = newPositions;
+				if(path == null) {
+					path = new IdentityHashMap<>();
+					for(int idx = 0; idx < top; ++idx)
+						path.put(containers[idx], Boolean.TRUE);
+				}
+			}
+			containers[top] = element;
+			iterators[top] = iteratorFor(element);
+			positions[top] = 0;
+			if(path != null)
+				path.put(element, Boolean.TRUE);
+		}
+		return true;
+	}
+
+	private static Iterator<?> iteratorFor(Object container) {
+		if(container instanceof List<?>)
+			return container instanceof RandomAccess ? null : ((List<?>)container).iterator();
+		return ((Map<?,?>)container).entrySet().iterator();
+	}
+}
@@ -32,6 +32,11 @@ public class DefaultType extends AnyType {
 		pcore.registerImpl(ptype, defaultTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Default.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof Default;
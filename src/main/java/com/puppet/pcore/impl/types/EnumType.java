@@ -60,6 +60,11 @@ public class EnumType extends ScalarDataType {
 		return true;
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == String.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof String && enums.isEmpty() || any(enums, (en) -> en.equals(o));
@@ -151,6 +151,11 @@ public class FloatType extends NumericType implements MergableRange<FloatType> {
 		return false;
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == Double.class || cls == Float.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof Float || o instanceof Double) {
@@ -62,6 +62,8 @@ public class HashType extends CollectionType {
 
 	@Override
 	protected void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		keyType.accept(visitor, guard);
 		super.accept(visitor, guard);
 	}
@@ -71,12 +73,29 @@ public class HashType extends CollectionType {
 		return new HashType(keyType, type, size, resolved);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Map.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof Map<?,?>) {
 			Map<?,?> mo = (Map<?,?>)o;
-			return size.isInstance(mo.size()) && (DEFAULT.equals(this) || all(mo.entrySet(),
-					(entry) -> keyType.isInstance(entry.getKey()) && type.isInstance(entry.getValue())));
+			if(!size.isInstance(mo.size()))
+				return false;
+			if(DEFAULT.equals(this))
+				return true;
+			ParallelValidator pv = ParallelValidator.forSize(mo.size(), guard);
+			if(pv != null) {
+				Object[] entries = mo.entrySet().toArray();
+				return pv.all(entries.length, idx -> {
+					Map.Entry<?,?> entry = (Map.Entry<?,?>)entries[idx];
+					return keyType.isInstance(entry.getKey()) && type.isInstance(entry.getValue());
+				});
+			}
+			return all(mo.entrySet(),
+					(entry) -> keyType.isInstance(entry.getKey()) && type.isInstance(entry.getValue()));
 		}
 		return false;
 	}
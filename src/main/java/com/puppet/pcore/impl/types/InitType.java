@@ -218,8 +218,15 @@ public class InitType extends TypeContainerType {
 
 	private <R> R guardedRecursion(RecursionGuard guard, R dflt, Function<RecursionGuard,? extends R> block) {
 		if(selfRecursion) {
-			RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-			return g.withThis(this, state -> (state & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 ? block.apply(g) : dflt);
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int token = g.enterThis(this);
+			try {
+				return (g.state() & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 ? block.apply(g) : dflt;
+			} finally {
+				g.exitThis(this, token);
+				if(guard == null)
+					g.release();
+			}
 		}
 		return block.apply(guard);
 	}
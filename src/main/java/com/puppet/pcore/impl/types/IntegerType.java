@@ -229,6 +229,11 @@ public class IntegerType extends NumericType implements MergableRange<IntegerTyp
 		return false;
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == Long.class || cls == Integer.class || cls == Short.class || cls == Byte.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
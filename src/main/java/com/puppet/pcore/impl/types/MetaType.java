@@ -20,6 +20,7 @@ abstract class MetaType extends AnyType implements Annotatable {
 	private Map<AnyType,Map<String,?>> annotations = emptyMap();
 	private Object initHashExpression;
 	private boolean selfRecursion;
+	private volatile boolean resolving;
 	private Pcore pcore;
 
 	MetaType(Expression initHashExpression) {
@@ -36,7 +37,7 @@ abstract class MetaType extends AnyType implements Annotatable {
 	}
 
 	public boolean isResolved() {
-		return initHashExpression == null;
+		return initHashExpression == null && !resolving;
 	}
 
 	public boolean isSelfRecursion() {
@@ -51,32 +52,49 @@ abstract class MetaType extends AnyType implements Annotatable {
 	@Override
 	@SuppressWarnings("unchecked")
 	public AnyType resolve(Pcore pcore) {
-		if(this.pcore == null)
-			this.pcore = pcore;
+		assignPcore(pcore);
 		if(initHashExpression != null) {
-			selfRecursion = true;
-
-			Map<String,Object> initHash;
-			if(initHashExpression instanceof HashExpression) {
-				HashExpression i12e = (HashExpression)initHashExpression;
-				initHashExpression = null;
-				initHash = resolveLiteralHash(i12e);
-			} else {
-				initHash = (Map<String,Object>)initHashExpression;
-				initHashExpression = null;
-				initHash = resolveHash(initHash);
+			resolving = true;
+			try {
+				selfRecursion = true;
+
+				Map<String,Object> initHash;
+				if(initHashExpression instanceof HashExpression) {
+					HashExpression i12e = (HashExpression)initHashExpression;
+					initHashExpression = null;
+					initHash = resolveLiteralHash(i12e);
+				} else {
+					initHash = (Map<String,Object>)initHashExpression;
+					initHashExpression = null;
+					initHash = resolveHash(initHash);
+				}
+				initializeFromHash(initHash);
+
+				RecursionGuard guard = new RecursionGuard();
+				accept(NoopAcceptor.singleton, guard);
+				selfRecursion = guard.recursiveThis(this);
+			} finally {
+				resolving = false;
 			}
-			initializeFromHash(initHash);
-
-			RecursionGuard guard = new RecursionGuard();
-			accept(NoopAcceptor.singleton, guard);
-			selfRecursion = guard.recursiveThis(this);
 		}
 		return this;
 	}
 
+	@Override
+	void assignPcore(Pcore pcore) {
+		if(this.pcore == null)
+			this.pcore = pcore;
+	}
+
+	@Override
+	Object unresolvedForm() {
+		return initHashExpression;
+	}
+
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		for(AnyType key : getAnnotations().keySet())
 			key.accept(visitor, guard);
 		super.accept(visitor, guard);
@@ -136,8 +154,15 @@ abstract class MetaType extends AnyType implements Annotatable {
 
 	<R> R guardedRecursion(RecursionGuard guard, R dflt, Function<RecursionGuard,? extends R> block) {
 		if(selfRecursion) {
-			RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-			return g.withThis(this, state -> (state & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 ? block.apply(g) : dflt);
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int token = g.enterThis(this);
+			try {
+				return (g.state() & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 ? block.apply(g) : dflt;
+			} finally {
+				g.exitThis(this, token);
+				if(guard == null)
+					g.release();
+			}
 		}
 		return block.apply(guard);
 	}
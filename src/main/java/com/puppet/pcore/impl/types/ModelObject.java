@@ -3,20 +3,34 @@ package com.puppet.pcore.impl.types;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 abstract class ModelObject {
 	interface Visitor {
 		void visit(ModelObject visitable, RecursionGuard guard);
+
+		/**
+		 * Returns {@code true} when the visitor has no need to visit the given object or anything that it contains.
+		 *
+		 * @param visitable the object that is about to be visited
+		 * @return {@code true} if the object should be skipped
+		 */
+		default boolean skip(ModelObject visitable) {
+			return false;
+		}
 	}
 
 	/**
-	 * Keeps track of self recursion of conceptual 'this' and 'that' instances using two separate maps and
+	 * Keeps track of self recursion of conceptual 'this' and 'that' instances using two separate sets and
 	 * <p>
 	 * a state. The class is used when tracking self recursion in two objects ('this' and 'that') simultaneously.
 	 * A typical example of when this is needed is when testing if 'that' Puppet Type is assignable to 'this'
 	 * Puppet Type since both types may contain self references.
 	 * <p>
+	 * An instance is entered using {@link #enterThis(Object)} or {@link #enterThat(Object)} which returns a
+	 * token that must be passed to the corresponding exit method once the guarded call is done. The sets
+	 * are kept in small inline arrays and will only fall back to a map when the recursion gets deep, so a
+	 * guard is cheap to use and can be reused by means of {@link #acquire()} and {@link #release()}.
+	 * <p>
 	 * All comparisons are made using the identity of the instance.
 	 */
 	static class RecursionGuard {
@@ -25,63 +39,113 @@ abstract class ModelObject {
 		static final int SELF_RECURSION_IN_BOTH = 3;
 		static final int SELF_RECURSION_IN_THAT = 2;
 		static final int SELF_RECURSION_IN_THIS = 1;
-		private Map<Object,Boolean> thatMap;
-		private Map<Object,Boolean> thisMap;
-		private Map<Object,Boolean> recursiveThatMap;
-		private Map<Object,Boolean> recursiveThisMap;
+
+		private static final int ENTERED = 0;
+		private static final int RECURSION_FLAGGED = 1;
+		private static final int RECURSION_SEEN = 2;
+
+		private static final ThreadLocal<RecursionGuard> pool = ThreadLocal.withInitial(RecursionGuard::new);
+
+		private final IdentitySet thatSet = new IdentitySet();
+		private final IdentitySet thisSet = new IdentitySet();
+		private final IdentitySet recursiveThatSet = new IdentitySet();
+		private final IdentitySet recursiveThisSet = new IdentitySet();
 		private int state;
+		private boolean inUse;
 
 		RecursionGuard() {
 			state = NO_SELF_RECURSION;
 		}
 
 		/**
-		 * Add the given argument as 'that' and call block with the resulting state. Pop
-		 * restore state after call.
+		 * Obtain the guard that is pooled for the current thread. A new guard is created if the pooled
+		 * guard is already in use. The returned guard must be handed back using {@link #release()}.
+		 *
+		 * @return an empty guard
+		 */
+		static RecursionGuard acquire() {
+			RecursionGuard guard = pool.get();
+			if(guard.inUse)
+				return new RecursionGuard();
+			guard.inUse = true;
+			return guard;
+		}
+
+		/**
+		 * Clear this guard so that it can be acquired again.
+		 */
+		void release() {
+			thatSet.clear();
+			thisSet.clear();
+			recursiveThatSet.clear();
+			recursiveThisSet.clear();
+			state = NO_SELF_RECURSION;
+			inUse = false;
+		}
+
+		/**
+		 * @return the current self recursion state
+		 */
+		int state() {
+			return state;
+		}
+
+		/**
+		 * Add the given argument as 'that' and update the state accordingly.
 		 *
 		 * @param instance the object to add
-		 * @return the result of calling the block
+		 * @return the token to pass to {@link #exitThat(Object, int)}
 		 */
-		<R> R withThat(Object instance, Function<Integer, R> block) {
-			R result;
-			if(getThatMap().put(instance, Boolean.TRUE) == null) {
-				result = block.apply(state);
-				thatMap.remove(instance);
-			} else {
-				getRecursiveThatMap().put(instance, Boolean.TRUE);
-				if((state & SELF_RECURSION_IN_THAT) == 0) {
-					state |= SELF_RECURSION_IN_THAT;
-					result = block.apply(state);
-					state &= ~SELF_RECURSION_IN_THAT;
-				}
-				else
-					result = block.apply(state);
-			}
-			return result;
+		int enterThat(Object instance) {
+			if(thatSet.add(instance))
+				return ENTERED;
+			recursiveThatSet.add(instance);
+			if((state & SELF_RECURSION_IN_THAT) != 0)
+				return RECURSION_SEEN;
+			state |= SELF_RECURSION_IN_THAT;
+			return RECURSION_FLAGGED;
 		}
 
 		/**
-		 * Add the given argument as 'this' and call block with the resulting state. Pop
-		 * restore state after call.
+		 * Restore the state that was in effect before the corresponding call to {@link #enterThat(Object)}.
+		 *
+		 * @param instance the object that was added
+		 * @param token    the token returned when the object was added
+		 */
+		void exitThat(Object instance, int token) {
+			if(token == ENTERED)
+				thatSet.remove(instance);
+			else if(token == RECURSION_FLAGGED)
+				state &= ~SELF_RECURSION_IN_THAT;
+		}
+
+		/**
+		 * Add the given argument as 'this' and update the state accordingly.
 		 *
 		 * @param instance the object to add
-		 * @return the result of calling the block
+		 * @return the token to pass to {@link #exitThis(Object, int)}
 		 */
-		<R> R withThis(Object instance, Function<Integer, R> block) {
-			R result;
-			if(getThisMap().put(instance, Boolean.TRUE) == null) {
-				result = block.apply(state);
-				thisMap.remove(instance);
-			} else {
-				getRecursiveThisMap().put(instance, Boolean.TRUE);
-				if((state & SELF_RECURSION_IN_THIS) == 0) {
-					state |= SELF_RECURSION_IN_THIS;
-					result = block.apply(state);
-					state &= ~SELF_RECURSION_IN_THIS;
-				} else
-					result = block.apply(state);
-			}
-			return result;
+		int enterThis(Object instance) {
+			if(thisSet.add(instance))
+				return ENTERED;
+			recursiveThisSet.add(instance);
+			if((state & SELF_RECURSION_IN_THIS) != 0)
+				return RECURSION_SEEN;
+			state |= SELF_RECURSION_IN_THIS;
+			return RECURSION_FLAGGED;
+		}
+
+		/**
+		 * Restore the state that was in effect before the corresponding call to {@link #enterThis(Object)}.
+		 *
+		 * @param instance the object that was added
+		 * @param token    the token returned when the object was added
+		 */
+		void exitThis(Object instance, int token) {
+			if(token == ENTERED)
+				thisSet.remove(instance);
+			else if(token == RECURSION_FLAGGED)
+				state &= ~SELF_RECURSION_IN_THIS;
 		}
 
 		/**
@@ -91,7 +155,7 @@ abstract class ModelObject {
 		 * @return true if recursion was detected, false otherwise.
 		 */
 		boolean recursiveThat(Object instance) {
-			return recursiveThatMap != null && recursiveThatMap.containsKey(instance);
+			return recursiveThatSet.contains(instance);
 		}
 
 		/**
@@ -101,31 +165,68 @@ abstract class ModelObject {
 		 * @return true if recursion was detected, false otherwise.
 		 */
 		boolean recursiveThis(Object instance) {
-			return recursiveThisMap != null && recursiveThisMap.containsKey(instance);
+			return recursiveThisSet.contains(instance);
+		}
+	}
+
+	/**
+	 * Set of objects compared by identity. The first few objects are kept in an array and a map is only
+	 * created when that array overflows.
+	 */
+	static final class IdentitySet {
+		private static final int INLINE_CAPACITY = 8;
+
+		private final Object[] inline = new Object[INLINE_CAPACITY];
+		private int size;
+		private Map<Object,Boolean> overflow;
+
+		boolean add(Object instance) {
+			if(overflow != null)
+				return overflow.put(instance, Boolean.TRUE) == null;
+			if(indexOf(instance) >= 0)
+				return false;
+			if(size < INLINE_CAPACITY) {
+				inline[size++] = instance;
+				return true;
+			}
+			overflow = new IdentityHashMap<>();
+			for(int idx = 0; idx < size; ++idx) {
+				overflow.put(inline[idx], Boolean.TRUE);
+				inline[idx] = null;
+			}
+			size = 0;
+			overflow.put(instance, Boolean.TRUE);
+			return true;
 		}
 
-		private Map<Object,Boolean> getRecursiveThatMap() {
-			if(recursiveThatMap == null)
-				recursiveThatMap = new IdentityHashMap<>();
-			return recursiveThatMap;
+		void clear() {
+			while(size > 0)
+				inline[--size] = null;
+			overflow = null;
 		}
 
-		private Map<Object,Boolean> getRecursiveThisMap() {
-			if(recursiveThisMap == null)
-				recursiveThisMap = new IdentityHashMap<>();
-			return recursiveThisMap;
+		boolean contains(Object instance) {
+			return overflow == null ? indexOf(instance) >= 0 : overflow.containsKey(instance);
 		}
 
-		private Map<Object,Boolean> getThatMap() {
-			if(thatMap == null)
-				thatMap = new IdentityHashMap<>();
-			return thatMap;
+		void remove(Object instance) {
+			if(overflow != null) {
+				overflow.remove(instance);
+				return;
+			}
+			int idx = indexOf(instance);
+			if(idx >= 0) {
+				System.arraycopy(inline, idx + 1, inline, idx, --size - idx);
+				inline[size] = null;
+			}
 		}
 
-		private Map<Object,Boolean> getThisMap() {
-			if(thisMap == null)
-				thisMap = new IdentityHashMap<>();
-			return thisMap;
+		private int indexOf(Object instance) {
+			// Search from the end since the most recently added object is the most likely one
+			for(int idx = size; --idx >= 0; )
+				if(inline[idx] == instance)
+					return idx;
+			return -1;
 		}
 	}
 
@@ -154,11 +255,14 @@ abstract class ModelObject {
 
 		while(--idx >= 0) {
 			Object av = a.get(idx);
+			Object bv = b.get(idx);
+			if(av == bv)
+				continue;
 			if(av instanceof ModelObject) {
-				if(!((ModelObject)av).guardedEquals(b.get(idx), guard))
+				if(!((ModelObject)av).guardedEquals(bv, guard))
 					return false;
 			} else {
-				if(!av.equals(b.get(idx)))
+				if(av == null || !av.equals(bv))
 					return false;
 			}
 		}
@@ -180,7 +284,8 @@ abstract class ModelObject {
 				if(!(b.get(key) == null && b.containsKey(key)))
 					return false;
 			} else {
-				if(!value.guardedEquals(b.get(key), guard))
+				V bv = b.get(key);
+				if(value != bv && !value.guardedEquals(bv, guard))
 					return false;
 			}
 		}
@@ -189,10 +294,12 @@ abstract class ModelObject {
 
 	@SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
 	public final boolean equals(Object o) {
-		return guardedEquals(o, null);
+		return this == o || guardedEquals(o, null);
 	}
 
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		visitor.visit(this, guard);
 	}
 
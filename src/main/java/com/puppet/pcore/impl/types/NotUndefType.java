@@ -49,6 +49,11 @@ public class NotUndefType extends TypeContainerType {
 				(self) -> new Object[]{self.type});
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls != null && type.couldBeInstance(cls);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o != null && type.isInstance(o, guard);
@@ -114,6 +114,11 @@ public class NumericType extends ScalarDataType {
 		pcore.registerImpl(ptype, numericTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Number.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof Number;
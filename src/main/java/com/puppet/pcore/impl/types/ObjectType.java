@@ -76,6 +76,8 @@ public class ObjectType extends MetaType implements PuppetObjectWithHash {
 
 		@Override
 		void accept(Visitor visitor, RecursionGuard guard) {
+			if(visitor.skip(this))
+				return;
 			for(AnyType key : getAnnotations().keySet())
 				key.accept(visitor, guard);
 			type.accept(visitor, guard);
@@ -596,6 +598,8 @@ public class ObjectType extends MetaType implements PuppetObjectWithHash {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		guardedRecursion(guard, null, (g) -> {
 			super.accept(visitor, g);
 			if(parent != null)
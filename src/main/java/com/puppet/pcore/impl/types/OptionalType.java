@@ -54,6 +54,11 @@ public class OptionalType extends TypeContainerType {
 		return new OptionalType(type, resolved);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == null || type.couldBeInstance(cls);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o == null || type.isInstance(o, guard);
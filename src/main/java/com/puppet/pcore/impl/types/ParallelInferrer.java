@@ -0,0 +1,102 @@
+package com.puppet.pcore.impl.types;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Performs the same inference as {@link TypeCalculator#inferSet(Object)} but uses a {@link ForkJoinPool} to
+ * infer the elements of wide collections and hashes in parallel. The elements are split in chunks that are
+ * inferred as separate tasks and the results are stored by index so that the resulting {@link TupleType},
+ * {@link StructType}, or {@link HashType} is identical to the one produced by a sequential inference. The
+ * collections themselves are inferred by {@link TypeCalculator#inferSet(Object, java.util.function.Function)}.
+ * <p>
+ * Collections that are too small to be worth splitting are traversed sequentially, but any wide collection
+ * nested inside of them is still split.
+ */
+final class ParallelInferrer {
+	/**
+	 * Collections with fewer elements than this are traversed sequentially
+	 */
+	private static final int SPLIT_THRESHOLD = 32;
+
+	/**
+	 * Chunks are never made smaller than this
+	 */
+	private static final int MIN_CHUNK_SIZE = 8;
+
+	private final ForkJoinPool pool;
+
+	ParallelInferrer(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	AnyType inferSet(Object o) {
+		return pool.invoke(new InferTask(o));
+	}
+
+	private AnyType inferNested(Object o) {
+		return TypeCalculator.SINGLETON.inferSet(o, values -> inferAll(values.toArray()));
+	}
+
+	private List<AnyType> inferAll(Object[] values) {
+		int size = values.length;
+		AnyType[] types = new AnyType[size];
+		if(size < SPLIT_THRESHOLD) {
+			for(int idx = 0; idx < size; ++idx)
+				types[idx] = inferNested(values[idx]);
+		} else {
+			int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 8));
+			new Chunk(values, types, chunkSize, 0, size).invoke();
+		}
+		return asList(types);
+	}
+
+	private final class InferTask extends RecursiveTask<AnyType> {
+		private static final long serialVersionUID = 1L;
+
+		private final Object value;
+
+		InferTask(Object value) {
+			this.value = value;
+		}
+
+		@Override
+		protected AnyType compute() {
+			return inferNested(value);
+		}
+	}
+
+	private final class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] values;
+		private final AnyType[] types;
+		private final int chunkSize;
+		private final int from;
+		private final int to;
+
+		Chunk(Object[] values, AnyType[] types, int chunkSize, int from, int to) {
+			this.values = values;
+			this.types = types;
+			this.chunkSize = chunkSize;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= chunkSize) {
+				for(int idx = from; idx < to; ++idx)
+					types[idx] = inferNested(values[idx]);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			invokeAll(new Chunk(values, types, chunkSize, from, mid), new Chunk(values, types, chunkSize, mid, to));
+		}
+	}
+}
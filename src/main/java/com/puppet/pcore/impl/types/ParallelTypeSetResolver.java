@@ -0,0 +1,339 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.parser.Expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the types declared in a large {@link TypeSetType} in parallel using a {@link ForkJoinPool}.
+ * <p>
+ * The names that each type refers to are collected from its unresolved form and used to build a dependency graph
+ * between the types of the set. Types that refer to each other, directly or indirectly, form a strongly connected
+ * component and are resolved together, in declaration order, by one task. A component is resolved only after all
+ * components that it depends on have been resolved, so no two tasks ever resolve the same type. Components that
+ * don't depend on each other are resolved concurrently.
+ * <p>
+ * Types in other type sets that are reached through the references of the set are resolved before the set's own
+ * types, just like when the types are resolved sequentially.
+ * <p>
+ * If resolution fails, components that depend on the failed component are not resolved and the error of the failed
+ * component that contains the earliest declared type is thrown. The error is hence the same regardless of how the
+ * tasks were scheduled.
+ */
+final class ParallelTypeSetResolver {
+	private static volatile ParallelTypeSetResolver instance;
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	private ParallelTypeSetResolver(ForkJoinPool pool, int threshold) {
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	static void enable(ForkJoinPool pool, int threshold) {
+		if(threshold < 1)
+			throw new IllegalArgumentException("Parallel TypeSet resolution threshold must be a positive integer");
+		instance = new ParallelTypeSetResolver(pool, threshold);
+	}
+
+	static void disable() {
+		instance = null;
+	}
+
+	/**
+	 * @return the minimum number of types that a type set must declare to be resolved in parallel or 0 when
+	 * parallel resolution is disabled
+	 */
+	static int threshold() {
+		ParallelTypeSetResolver pr = instance;
+		return pr == null ? 0 : pr.threshold;
+	}
+
+	/**
+	 * Returns the resolver to use for a type set that declares the given number of types or {@code null} if the types
+	 * should be resolved sequentially.
+	 *
+	 * @param size the number of types declared in the type set
+	 * @return the resolver or {@code null}
+	 */
+	static ParallelTypeSetResolver forSize(int size) {
+		ParallelTypeSetResolver pr = instance;
+		return pr != null && size >= pr.threshold ? pr : null;
+	}
+
+	/**
+	 * Resolves the given types, all declared in the type set with the given name, in the given scope.
+	 *
+	 * @param typeSetName the name of the type set
+	 * @param types the declared types keyed by their names
+	 * @param scope the scope to resolve the types in
+	 * @return the resolved types in declaration order
+	 */
+	Map<String,AnyType> resolve(String typeSetName, Map<String,AnyType> types, Pcore scope) {
+		String[] names = types.keySet().toArray(new String[types.size()]);
+		AnyType[] members = types.values().toArray(new AnyType[types.size()]);
+		int[][] edges = dependencies(typeSetName, names, members);
+
+		ComponentFinder finder = new ComponentFinder(edges);
+		List<int[]> components = finder.components;
+		int[] componentLevels = finder.levels;
+
+		int levelCount = 0;
+		for(int level : componentLevels)
+			levelCount = Math.max(levelCount, level + 1);
+		List<List<Integer>> levels = new ArrayList<>(levelCount);
+		for(int idx = 0; idx < levelCount; ++idx)
+			levels.add(new ArrayList<>());
+		for(int idx = 0; idx < componentLevels.length; ++idx)
+			levels.get(componentLevels[idx]).add(idx);
+
+		AnyType[] resolved = new AnyType[members.length];
+		RuntimeException[] failures = new RuntimeException[components.size()];
+		BitSet failed = new BitSet(members.length);
+		for(List<Integer> level : levels) {
+			ComponentTask[] tasks = new ComponentTask[level.size()];
+			int tdx = 0;
+			for(int component : level)
+				tasks[tdx++] = new ComponentTask(components.get(component), component, edges, members, scope, resolved, failures, failed);
+			pool.invoke(new LevelTask(tasks));
+		}
+
+		RuntimeException failure = null;
+		int firstFailedMember = Integer.MAX_VALUE;
+		for(int idx = 0; idx < failures.length; ++idx) {
+			RuntimeException f = failures[idx];
+			if(f != null && components.get(idx)[0] < firstFailedMember) {
+				firstFailedMember = components.get(idx)[0];
+				failure = f;
+			}
+		}
+		if(failure != null)
+			throw failure;
+
+		Map<String,AnyType> result = new LinkedHashMap<>();
+		for(int idx = 0; idx < names.length; ++idx)
+			result.put(names[idx], resolved[idx]);
+		return result;
+	}
+
+	/**
+	 * Returns the indexes of the types that each type refers to. A name is considered to refer to a type when it
+	 * matches its name, case insensitively, with or without a prefix that is the name of the type set. A name that
+	 * appears in some other context, such as in a string, is not distinguished from a type reference. That only adds
+	 * dependencies, which never affects the outcome of the resolution.
+	 */
+	private static int[][] dependencies(String typeSetName, String[] names, AnyType[] members) {
+		References references = new References(typeSetName, names, members);
+		int[][] edges = new int[members.length][];
+		for(int idx = 0; idx < members.length; ++idx) {
+			references.referenced.clear();
+			references.collect(members[idx].unresolvedForm());
+			edges[idx] = references.referenced.stream().toArray();
+		}
+		return edges;
+	}
+
+	private static final class References {
+		private static final Pattern NAME = Pattern.compile("(?:::)?([A-Za-z]\\w*(?:::[A-Za-z]\\w*)*)");
+
+		final BitSet referenced;
+		private final Map<String,Integer> indexes = new HashMap<>();
+		private final Map<AnyType,Integer> memberIndexes = new IdentityHashMap<>();
+		private final String prefix;
+
+		References(String typeSetName, String[] names, AnyType[] members) {
+			for(int idx = 0; idx < names.length; ++idx) {
+				indexes.put(names[idx].toLowerCase(Locale.ENGLISH), idx);
+				memberIndexes.put(members[idx], idx);
+			}
+			prefix = typeSetName == null ? null : typeSetName.toLowerCase(Locale.ENGLISH) + "::";
+			referenced = new BitSet(members.length);
+		}
+
+		void collect(Object value) {
+			if(value instanceof String) {
+				// The string may be a type expression, such as the string of a TypeReference
+				Matcher m = NAME.matcher((String)value);
+				while(m.find()) {
+					String name = m.group(1).toLowerCase(Locale.ENGLISH);
+					if(prefix != null && name.startsWith(prefix))
+						name = name.substring(prefix.length());
+					Integer idx = indexes.get(name);
+					if(idx != null)
+						referenced.set(idx);
+				}
+			} else if(value instanceof AnyType) {
+				Integer idx = memberIndexes.get(value);
+				if(idx != null)
+					referenced.set(idx);
+				else if(value instanceof TypeReferenceType)
+					collect(((TypeReferenceType)value).typeString);
+				else
+					collect(((AnyType)value).unresolvedForm());
+			} else if(value instanceof Expression)
+				collect(((Expression)value).toPN().toData());
+			else if(value instanceof Map<?,?>) {
+				for(Map.Entry<?,?> entry : ((Map<?,?>)value).entrySet()) {
+					collect(entry.getKey());
+					collect(entry.getValue());
+				}
+			} else if(value instanceof List<?>) {
+				for(Object elem : (List<?>)value)
+					collect(elem);
+			}
+		}
+	}
+
+	/**
+	 * Finds the strongly connected components of the dependency graph using Tarjan's algorithm. The components are
+	 * found with all their dependencies before them, which makes it possible to compute the level of each component
+	 * as one more than the highest level among the components that it depends on.
+	 */
+	private static final class ComponentFinder {
+		final List<int[]> components = new ArrayList<>();
+		int[] levels;
+
+		private final int[][] edges;
+		private final int[] index;
+		private final int[] lowLink;
+		private final int[] componentOf;
+		private final boolean[] onStack;
+		private final int[] stack;
+		private int stackTop;
+		private int nextIndex;
+		private final List<Integer> levelList = new ArrayList<>();
+
+		ComponentFinder(int[][] edges) {
+			int size = edges.length;
+			this.edges = edges;
+			index = new int[size];
+			lowLink = new int[size];
+			componentOf = new int[size];
+			onStack = new boolean[size];
+			stack = new int[size];
+			Arrays.fill(index, -1);
+			for(int idx = 0; idx < size; ++idx)
+				if(index[idx] < 0)
+					connect(idx);
+			levels = new int[levelList.size()];
+			for(int idx = 0; idx < levels.length; ++idx)
+				levels[idx] = levelList.get(idx);
+		}
+
+		private void connect(int node) {
+			index[node] = lowLink[node] = nextIndex++;
+			stack[stackTop++] = node;
+			onStack[node] = true;
+			for(int dep : edges[node]) {
+				if(index[dep] < 0) {
+					connect(dep);
+					lowLink[node] = Math.min(lowLink[node], lowLink[dep]);
+				} else if(onStack[dep])
+					lowLink[node] = Math.min(lowLink[node], index[dep]);
+			}
+			if(lowLink[node] != index[node])
+				return;
+
+			int component = components.size();
+			int start = stackTop;
+			do
+				componentOf[stack[--start]] = component;
+			while(stack[start] != node);
+
+			int[] members = Arrays.copyOfRange(stack, start, stackTop);
+			for(int member : members)
+				onStack[member] = false;
+			stackTop = start;
+
+			// Members are resolved in declaration order
+			Arrays.sort(members);
+			int level = 0;
+			for(int member : members)
+				for(int dep : edges[member])
+					if(componentOf[dep] != component)
+						level = Math.max(level, levelList.get(componentOf[dep]) + 1);
+			components.add(members);
+			levelList.add(level);
+		}
+	}
+
+	private static final class LevelTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final ComponentTask[] tasks;
+
+		LevelTask(ComponentTask[] tasks) {
+			this.tasks = tasks;
+		}
+
+		@Override
+		protected void compute() {
+			invokeAll(tasks);
+		}
+	}
+
+	private static final class ComponentTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] members;
+		private final int component;
+		private final int[][] edges;
+		private final AnyType[] types;
+		private final Pcore scope;
+		private final AnyType[] resolved;
+		private final RuntimeException[] failures;
+		private final BitSet failed;
+
+		ComponentTask(int[] members, int component, int[][] edges, AnyType[] types, Pcore scope, AnyType[] resolved,
+				RuntimeException[] failures, BitSet failed) {
+			this.members = members;
+			this.component = component;
+			this.edges = edges;
+			this.types = types;
+			this.scope = scope;
+			this.resolved = resolved;
+			this.failures = failures;
+			this.failed = failed;
+		}
+
+		@Override
+		protected void compute() {
+			// Dependencies were resolved by tasks of earlier levels, and hence happen before this task
+			for(int member : members)
+				for(int dep : edges[member])
+					if(failed.get(dep)) {
+						markFailed();
+						return;
+					}
+
+			try {
+				for(int member : members)
+					resolved[member] = types[member].resolve(scope);
+			} catch(RuntimeException e) {
+				failures[component] = e;
+				markFailed();
+			}
+		}
+
+		private void markFailed() {
+			synchronized(failed) {
+				for(int member : members)
+					failed.set(member);
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.puppet.pcore.impl.types;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+
+/**
+ * Validates the elements of large collections in parallel using a {@link ForkJoinPool}. The range of element
+ * indexes is split in halves until the chunks are small enough to be checked sequentially. A failing element
+ * sets a flag that makes all remaining chunks stop early.
+ * <p>
+ * The outcome is the same as for a sequential check since a collection is valid only when all elements are
+ * valid. Parallel validation is never used when a {@link ModelObject.RecursionGuard} is in effect since the
+ * guard tracks the state of one thread.
+ */
+final class ParallelValidator {
+	/**
+	 * Chunks are never made smaller than this
+	 */
+	private static final int MIN_CHUNK_SIZE = 1024;
+
+	private static volatile ParallelValidator instance;
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	private ParallelValidator(ForkJoinPool pool, int threshold) {
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	static void enable(ForkJoinPool pool, int threshold) {
+		if(threshold < 1)
+			throw new IllegalArgumentException("Parallel validation threshold must be a positive integer");
+		instance = new ParallelValidator(pool, threshold);
+	}
+
+	static void disable() {
+		instance = null;
+	}
+
+	/**
+	 * @return the minimum number of elements that a collection must have to be validated in parallel or 0 when
+	 * parallel validation is disabled
+	 */
+	static int threshold() {
+		ParallelValidator pv = instance;
+		return pv == null ? 0 : pv.threshold;
+	}
+
+	/**
+	 * Returns the validator to use for a collection of the given size or {@code null} if the collection should be
+	 * validated sequentially.
+	 *
+	 * @param size the number of elements in the collection
+	 * @param guard the recursion guard in effect
+	 * @return the validator or {@code null}
+	 */
+	static ParallelValidator forSize(int size, ModelObject.RecursionGuard guard) {
+		ParallelValidator pv = instance;
+		return pv != null && guard == null && size >= pv.threshold ? pv : null;
+	}
+
+	/**
+	 * @param size number of elements
+	 * @param check predicate that validates the element at a given index
+	 * @return {@code true} if the predicate is true for all indexes from 0 to <code>size - 1</code>
+	 */
+	boolean all(int size, IntPredicate check) {
+		AtomicBoolean failed = new AtomicBoolean();
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 8));
+		pool.invoke(new Chunk(check, failed, chunkSize, 0, size));
+		return !failed.get();
+	}
+
+	private static final class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final IntPredicate check;
+		private final AtomicBoolean failed;
+		private final int chunkSize;
+		private final int from;
+		private final int to;
+
+		Chunk(IntPredicate check, AtomicBoolean failed, int chunkSize, int from, int to) {
+			this.check = check;
+			this.failed = failed;
+			this.chunkSize = chunkSize;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(failed.get())
+				return;
+
+			if(to - from <= chunkSize) {
+				for(int idx = from; idx < to; ++idx) {
+					if(!check.test(idx)) {
+						failed.set(true);
+						return;
+					}
+					if((idx & 0xff) == 0 && failed.get())
+						return;
+				}
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			invokeAll(new Chunk(check, failed, chunkSize, from, mid), new Chunk(check, failed, chunkSize, mid, to));
+		}
+	}
+}
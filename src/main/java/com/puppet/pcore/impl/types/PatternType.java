@@ -4,6 +4,7 @@ import com.puppet.pcore.Type;
 import com.puppet.pcore.impl.Helpers;
 import com.puppet.pcore.impl.PcoreImpl;
 import com.puppet.pcore.regex.Regexp;
+import com.puppet.pcore.regex.RegexpSet;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -11,7 +12,7 @@ import java.util.List;
 import java.util.Objects;
 
 import static com.puppet.pcore.impl.Helpers.all;
-import static com.puppet.pcore.impl.Helpers.any;
+import static com.puppet.pcore.impl.Helpers.map;
 import static com.puppet.pcore.impl.types.TypeFactory.*;
 import static java.lang.String.format;
 import static java.util.Collections.singletonMap;
@@ -22,6 +23,7 @@ public class PatternType extends ScalarType {
 
 	private static ObjectType ptype;
 	public final List<RegexpType> regexps;
+	private volatile RegexpSet regexpSet;
 
 	PatternType(List<Object> regexps) {
 		List<RegexpType> rxs = new ArrayList<>(regexps.size());
@@ -67,6 +69,8 @@ public class PatternType extends ScalarType {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		for(RegexpType regexp : regexps)
 			regexp.accept(visitor, guard);
 		super.accept(visitor, guard);
@@ -77,15 +81,30 @@ public class PatternType extends ScalarType {
 		return o instanceof PatternType && Objects.equals(regexps, ((PatternType)o).regexps);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == String.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof String) {
 			String so = (String)o;
-			return regexps.isEmpty() || any(regexps, regexp -> regexp.matches(so));
+			return regexps.isEmpty() || regexpSet().find(so);
 		}
 		return false;
 	}
 
+	/**
+	 * @return the regexps of this pattern as a set that encodes a string once when searching it
+	 */
+	RegexpSet regexpSet() {
+		RegexpSet set = regexpSet;
+		if(set == null)
+			regexpSet = set = new RegexpSet(map(regexps, RegexpType::pattern));
+		return set;
+	}
+
 	@Override
 	boolean isUnsafeAssignable(AnyType t, RecursionGuard guard) {
 		if(this == t)
@@ -95,14 +114,14 @@ public class PatternType extends ScalarType {
 			if(regexps.isEmpty())
 				return true;
 			String value = ((StringType)t).value;
-			return value != null && any(regexps, regexp -> regexp.matches(value));
+			return value != null && regexpSet().find(value);
 		}
 
 		if(t instanceof EnumType) {
 			if(regexps.isEmpty())
 				return true;
 			List<String> enums = ((EnumType)t).enums;
-			return !enums.isEmpty() && all(enums, value -> any(regexps, regexp -> regexp.matches(value)));
+			return !enums.isEmpty() && all(enums, value -> regexpSet().find(value));
 		}
 
 		return t instanceof PatternType && (regexps.isEmpty() || regexps.containsAll(((PatternType)t).regexps));
@@ -69,6 +69,11 @@ public class RegexpType extends ScalarType {
 		return o instanceof RegexpType && pattern.equals(((RegexpType)o).pattern);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Regexp.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof Regexp && (pattern.toString().equals(DEFAULT_PATTERN) || pattern.equals(o));
@@ -31,6 +31,11 @@ public class ScalarDataType extends ScalarType {
 		pcore.registerImpl(ptype, scalarDataTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == String.class || cls == Boolean.class || isA(cls, Number.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof String || o instanceof Number || o instanceof Boolean;
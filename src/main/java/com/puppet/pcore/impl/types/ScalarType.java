@@ -36,6 +36,18 @@ public class ScalarType extends AnyType {
 		pcore.registerImpl(ptype, scalarTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == null
+				|| cls == String.class
+				|| cls == Boolean.class
+				|| isA(cls, Number.class)
+				|| isA(cls, Regexp.class)
+				|| isA(cls, Instant.class)
+				|| isA(cls, Duration.class)
+				|| isA(cls, Version.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o == null
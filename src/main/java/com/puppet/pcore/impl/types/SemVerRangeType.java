@@ -44,6 +44,11 @@ public class SemVerRangeType extends AnyType {
 		return true;
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, VersionRange.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof VersionRange;
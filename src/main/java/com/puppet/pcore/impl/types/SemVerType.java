@@ -79,6 +79,11 @@ public class SemVerType extends ScalarType {
 		return o instanceof SemVerType && ranges.equals(((SemVerType)o).ranges);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Version.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof Version) {
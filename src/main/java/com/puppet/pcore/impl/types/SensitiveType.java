@@ -63,6 +63,11 @@ public class SensitiveType extends TypeContainerType {
 				(self) -> new Object[]{self.type});
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Sensitive.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof Sensitive && type.isInstance(((Sensitive)o).unwrap(), guard);
@@ -94,10 +94,17 @@ public class StringType extends ScalarDataType {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		size.accept(visitor, guard);
 		super.accept(visitor, guard);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == String.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o instanceof String
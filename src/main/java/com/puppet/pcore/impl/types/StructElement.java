@@ -60,6 +60,8 @@ public class StructElement extends ModelObject implements PuppetObject {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		key.accept(visitor, guard);
 		value.accept(visitor, guard);
 	}
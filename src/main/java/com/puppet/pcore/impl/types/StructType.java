@@ -4,6 +4,7 @@ import com.puppet.pcore.Type;
 import com.puppet.pcore.impl.PcoreImpl;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,9 +24,33 @@ public class StructType extends AnyType {
 	public final IntegerType size;
 	private Map<String,StructElement> hashedMembers;
 
+	/**
+	 * Maps the name of each element to its index in {@link #elements}, or {@code null} when the names are not unique
+	 */
+	private final Map<String,Integer> slots;
+
+	/**
+	 * Flags the elements whose key is assignable from undef, i.e. that need not be present in an instance
+	 */
+	private final boolean[] optional;
+
 	StructType(List<StructElement> elements) {
 		this.elements = elements;
-		size = integerType(count(elements, m -> !m.key.isAssignable(UndefType.DEFAULT)), elements.size());
+		int top = elements.size();
+		optional = new boolean[top];
+		Map<String,Integer> slots = new HashMap<>();
+		int required = 0;
+		for(int idx = 0; idx < top; ++idx) {
+			StructElement element = elements.get(idx);
+			if(element.key.isAssignable(UndefType.DEFAULT))
+				optional[idx] = true;
+			else
+				++required;
+			if(slots != null && slots.put(element.name, idx) != null)
+				slots = null;
+		}
+		this.slots = slots;
+		size = integerType(required, top);
 	}
 
 	@Override
@@ -64,6 +89,8 @@ public class StructType extends AnyType {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		for(StructElement m : elements)
 		  m.accept(visitor, guard);
 		super.accept(visitor, guard);
@@ -83,16 +110,29 @@ public class StructType extends AnyType {
 		return o instanceof StructType && equals(elements, ((StructType)o).elements, guard);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Map.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
-		if(o instanceof Map<?,?>) {
-			Map<?,?> mo = (Map<?,?>)o;
+		if(!(o instanceof Map<?,?>))
+			return false;
+
+		Map<?,?> mo = (Map<?,?>)o;
+		int moSize = mo.size();
+		if(moSize < size.min || moSize > size.max)
+			return false;
+
+		if(slots == null) {
 			int matched = 0;
-			for(StructElement element : elements) {
+			for(int idx = 0; idx < optional.length; ++idx) {
+				StructElement element = elements.get(idx);
 				String key = element.name;
 				Object v = mo.get(key);
 				if(v == null && !mo.containsKey(key)) {
-					if(!element.key.isAssignable(undefType(), guard))
+					if(!optional[idx])
 						return false;
 				} else {
 					++matched;
@@ -100,9 +140,44 @@ public class StructType extends AnyType {
 						return false;
 				}
 			}
-			return matched == mo.size();
+			return matched == moSize;
 		}
-		return false;
+
+		// The keys of the map are unique so each one can hit at most one slot. All required elements
+		// are present if the number of required slots that were hit equals the number of required elements.
+		int required = 0;
+		for(Map.Entry<?,?> entry : mo.entrySet()) {
+			int slot = slotOf(entry.getKey());
+			if(slot < 0 || !elements.get(slot).value.isInstance(entry.getValue(), guard))
+				return false;
+			if(!optional[slot])
+				++required;
+		}
+		return required == size.min;
+	}
+
+	/**
+	 * @return {@code true} if the element names are unique so that {@link #slotOf(Object)} can be used
+	 */
+	boolean hasSlots() {
+		return slots != null;
+	}
+
+	/**
+	 * @param idx index of an element
+	 * @return {@code true} if the element need not be present in an instance
+	 */
+	boolean isOptional(int idx) {
+		return optional[idx];
+	}
+
+	/**
+	 * @param key a hash key
+	 * @return the index of the element with the given name or -1 if no such element exists
+	 */
+	int slotOf(Object key) {
+		Integer slot = slots.get(key);
+		return slot == null ? -1 : slot;
 	}
 
 	@Override
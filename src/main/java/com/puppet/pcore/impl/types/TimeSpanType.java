@@ -146,6 +146,11 @@ public class TimeSpanType extends TimeDataType<TimeSpanType,Duration> {
 		return result;
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Duration.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof Duration) {
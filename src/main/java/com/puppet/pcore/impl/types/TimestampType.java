@@ -101,6 +101,11 @@ public class TimestampType extends TimeDataType<TimestampType,Instant> {
 		throw new IllegalArgumentException("Timestamp format can not be a " + formats.getClass().getName());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, Instant.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof Instant) {
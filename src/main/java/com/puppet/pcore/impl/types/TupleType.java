@@ -8,6 +8,7 @@ import com.puppet.pcore.serialization.FactoryDispatcher;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 import static com.puppet.pcore.impl.Constants.KEY_TYPE;
 import static com.puppet.pcore.impl.Constants.KEY_VALUE;
@@ -75,6 +76,8 @@ public class TupleType extends TypesContainerType {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		if(size != null)
 			size.accept(visitor, guard);
 		super.accept(visitor, guard);
@@ -95,6 +98,11 @@ public class TupleType extends TypesContainerType {
 		return super.guardedEquals(o, guard) && equals(size, ((TupleType)o).size, guard);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, List.class);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof List<?>) {
@@ -102,6 +110,9 @@ public class TupleType extends TypesContainerType {
 			int oSize = lo.size();
 			if(givenOrActualSize.isInstance(oSize, guard)) {
 				int last = types.size() - 1;
+				ParallelValidator pv = last >= 0 && lo instanceof RandomAccess ? ParallelValidator.forSize(oSize, guard) : null;
+				if(pv != null)
+					return pv.all(oSize, idx -> types.get(idx < last ? idx : last).isInstance(lo.get(idx)));
 				if(last >= 0) {
 					for(int idx = 0, tdx = 0; idx < oSize; ++idx) {
 						if(!types.get(tdx).isInstance(lo.get(idx), guard))
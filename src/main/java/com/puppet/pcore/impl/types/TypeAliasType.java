@@ -55,6 +55,7 @@ public class TypeAliasType extends AnyType {
 	private AnyType resolvedType;
 	private boolean selfRecursion;
 	private Pcore pcore;
+	private DataValidator validator;
 
 	@SuppressWarnings("unchecked")
 	TypeAliasType(ArgumentsAccessor args) throws IOException {
@@ -105,8 +106,8 @@ public class TypeAliasType extends AnyType {
 
 	@Override
 	public AnyType resolve(Pcore pcore) {
-		if(this.pcore == null)
-			this.pcore = pcore;
+		assignPcore(pcore);
+		pcore = this.pcore;
 		if(resolvedType == null) {
 			// resolved to TypeReferenceType.DEFAULT during resolve to avoid endless recursion
 			resolvedType = TypeReferenceType.DEFAULT;
@@ -164,8 +165,26 @@ public class TypeAliasType extends AnyType {
 				(self) -> new Object[]{self.name, self.resolvedType()});
 	}
 
+	@Override
+	void assignPcore(Pcore pcore) {
+		if(this.pcore == null) {
+			this.pcore = pcore;
+			// A deserialized alias is created with its resolved type, possibly referencing itself, so
+			// the recursion status must be established before anything traverses it.
+			if(typeExpression == null && isResolved())
+				setSelfRecursionStatus();
+		}
+	}
+
+	@Override
+	Object unresolvedForm() {
+		return resolvedType == null ? typeExpression : null;
+	}
+
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		guardedRecursion(guard, null, g -> {
 			if(resolvedType != null)
 				resolvedType.accept(visitor, g);
@@ -195,10 +214,17 @@ public class TypeAliasType extends AnyType {
 			return false;
 
 		if(isRecursive()) {
-			RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-			return g.withThat(
-					o,
-					thatState -> g.withThis(this, state -> state == RecursionGuard.SELF_RECURSION_IN_BOTH || equals(resolvedType, to.resolvedType, g)));
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int thatToken = g.enterThat(o);
+			int thisToken = g.enterThis(this);
+			try {
+				return g.state() == RecursionGuard.SELF_RECURSION_IN_BOTH || equals(resolvedType, to.resolvedType, g);
+			} finally {
+				g.exitThis(this, thisToken);
+				g.exitThat(o, thatToken);
+				if(guard == null)
+					g.release();
+			}
 		}
 		return equals(resolvedType, to.resolvedType, guard);
 	}
@@ -206,27 +232,63 @@ public class TypeAliasType extends AnyType {
 	@Override
 	boolean isAssignable(AnyType o, RecursionGuard guard) {
 		if(isRecursive()) {
-			RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-			return g.withThis(this, state -> state == RecursionGuard.SELF_RECURSION_IN_BOTH || super.isAssignable(o, g));
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int token = g.enterThis(this);
+			try {
+				return g.state() == RecursionGuard.SELF_RECURSION_IN_BOTH || super.isAssignable(o, g);
+			} finally {
+				g.exitThis(this, token);
+				if(guard == null)
+					g.release();
+			}
 		}
 		return super.isAssignable(o, guard);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return selfRecursion || !isResolved() || resolvedType().couldBeInstance(cls);
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
+		if(validator != null)
+			return validator.isInstance(o);
 		return isReallyInstance(o, guard) == 1;
 	}
 
 	@Override
 	boolean isIterable(RecursionGuard guard) {
-		return guardedRecursion(guard, false, g -> resolvedType().isIterable(g));
+		if(selfRecursion) {
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int token = g.enterThis(this);
+			try {
+				return (g.state() & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 && resolvedType().isIterable(g);
+			} finally {
+				g.exitThis(this, token);
+				if(guard == null)
+					g.release();
+			}
+		}
+		return resolvedType().isIterable(guard);
 	}
 
 	@Override
 	int isReallyInstance(Object o, RecursionGuard guard) {
+		if(validator != null)
+			return validator.isInstance(o) ? 1 : -1;
 		if(selfRecursion) {
-			RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-			return g.withThat(o, thatState -> g.withThis(this, state -> state == RecursionGuard.SELF_RECURSION_IN_BOTH ? 0 : resolvedType().isReallyInstance(o, g)));
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int thatToken = g.enterThat(o);
+			int thisToken = g.enterThis(this);
+			try {
+				return g.state() == RecursionGuard.SELF_RECURSION_IN_BOTH ? 0 : resolvedType().isReallyInstance(o, g);
+			} finally {
+				g.exitThis(this, thisToken);
+				g.exitThat(o, thatToken);
+				if(guard == null)
+					g.release();
+			}
 		}
 		return resolvedType().isReallyInstance(o, guard);
 	}
@@ -236,10 +298,40 @@ public class TypeAliasType extends AnyType {
 		return resolvedType().isUnsafeAssignable(type, guard);
 	}
 
+	/**
+	 * @return {@code true} if instance checks for this alias are performed by a {@link DataValidator}
+	 */
+	boolean hasValidator() {
+		return validator != null;
+	}
+
+	/**
+	 * Make all instance checks for this alias use the given validator. Only used for the built in aliases.
+	 *
+	 * @param validator the validator to use
+	 */
+	void setValidator(DataValidator validator) {
+		this.validator = validator;
+	}
+
+	/**
+	 * @return {@code true} if this alias has been resolved and is not in the process of being resolved
+	 */
+	boolean isResolved() {
+		return resolvedType != null && resolvedType != TypeReferenceType.DEFAULT;
+	}
+
 	private <R> R guardedRecursion(RecursionGuard guard, R dflt, Function<RecursionGuard,? extends R> block) {
 		if(selfRecursion) {
-			RecursionGuard g = guard == null ? new RecursionGuard() : guard;
-			return g.withThis(this, state -> (state & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 ? block.apply(g) : dflt);
+			RecursionGuard g = guard == null ? RecursionGuard.acquire() : guard;
+			int token = g.enterThis(this);
+			try {
+				return (g.state() & RecursionGuard.SELF_RECURSION_IN_THIS) == 0 ? block.apply(g) : dflt;
+			} finally {
+				g.exitThis(this, token);
+				if(guard == null)
+					g.release();
+			}
 		}
 		return block.apply(guard);
 	}
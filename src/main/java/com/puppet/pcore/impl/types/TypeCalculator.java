@@ -8,10 +8,13 @@ import com.puppet.pcore.semver.VersionRange;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
 
 import static com.puppet.pcore.impl.Helpers.all;
 import static com.puppet.pcore.impl.Helpers.map;
@@ -21,10 +24,32 @@ import static com.puppet.pcore.impl.types.TypeFactory.*;
 @SuppressWarnings("unused")
 class TypeCalculator extends Polymorphic<AnyType> {
 
-	static final TypeCalculator SINGLETON = new TypeCalculator();
+	static final TypeCalculator SINGLETON = new TypeCalculator(0);
 	private static final DispatchMap dispatchMap = initPolymorphicDispatch(TypeCalculator.class, "_infer");
 
-	private TypeCalculator() {
+	/**
+	 * Maximum number of elements to infer from a collection, or 0 if all elements are inferred
+	 */
+	private final int sampleSize;
+
+	private TypeCalculator(int sampleSize) {
+		this.sampleSize = sampleSize;
+	}
+
+	/**
+	 * Returns a calculator that infers the element type of a collection from at most <code>sampleSize</code>
+	 * of its elements. Elements are picked at even intervals from lists that support random access and
+	 * from the start of all other collections. The inferred size of a collection is always exact but the
+	 * element type will only describe the sampled elements. The calculator also stops folding element types
+	 * as soon as the common type is <code>Data</code>.
+	 *
+	 * @param sampleSize the maximum number of elements to infer from each collection
+	 * @return the sampling calculator
+	 */
+	static TypeCalculator sampling(int sampleSize) {
+		if(sampleSize < 1)
+			throw new IllegalArgumentException("Sample size must be at least 1");
+		return new TypeCalculator(sampleSize);
 	}
 
 	@Override
@@ -140,22 +165,70 @@ class TypeCalculator extends Polymorphic<AnyType> {
 		return dispatch(o);
 	}
 
+	/**
+	 * Infers the type of each object and folds it into the common type of all objects. The fold stops as
+	 * soon as the common type can no longer change.
+	 *
+	 * @param objects the objects to infer
+	 * @return the common type
+	 */
 	AnyType inferAndReduceType(Collection<?> objects) {
-		return reduceType(map(objects, this::infer));
+		int size = objects.size();
+		AnyType result = unitType();
+		if(sampleSize > 0 && size > sampleSize && objects instanceof List<?> && objects instanceof RandomAccess) {
+			List<?> list = (List<?>)objects;
+			for(int idx = 0; idx < sampleSize; ++idx) {
+				result = result.common(infer(list.get((int)((long)idx * size / sampleSize))));
+				if(isWidest(result))
+					break;
+			}
+			return result;
+		}
+
+		int count = sampleSize > 0 ? sampleSize : size;
+		for(Object o : objects) {
+			result = result.common(infer(o));
+			if(--count == 0 || isWidest(result))
+				break;
+		}
+		return result;
 	}
 
 	AnyType inferSet(Object o) {
+		return inferSet(o, values -> map(values, this::inferSet));
+	}
+
+	/**
+	 * Infers the type of a collection or hash in the same way as {@link #inferSet(Object)} but uses the given
+	 * function to infer the types of its elements, keys, and values. The function must return the types in the
+	 * iteration order of the values that it is given.
+	 *
+	 * @param o the object to infer
+	 * @param inferAll infers the type of each value in a collection
+	 * @return the inferred type
+	 */
+	AnyType inferSet(Object o, Function<Collection<?>,List<AnyType>> inferAll) {
 		if(o instanceof Collection<?>) {
 			Collection<?> cv = (Collection<?>)o;
-			return cv.isEmpty() ? ArrayType.EMPTY : tupleType(map(cv, this::inferSet));
+			if(cv.isEmpty())
+				return ArrayType.EMPTY;
+			return isSampled(cv.size()) ? infer(cv) : tupleType(inferAll.apply(cv));
 		}
 		if(o instanceof Map<?,?>) {
 			Map<?,?> ho = (Map<?,?>)o;
-			if(all(ho.keySet(), StringType.NOT_EMPTY::isInstance))
-				return structType(map(ho.entrySet(), e -> new StructElement(stringType((String)e.getKey()), inferSet(e.getValue()))));
-
-			AnyType keyType = variantType(map(ho.keySet(), this::inferSet));
-			AnyType valueType = variantType(map(ho.values(), this::inferSet));
+			if(isSampled(ho.size()))
+				return infer(ho);
+			if(all(ho.keySet(), StringType.NOT_EMPTY::isInstance)) {
+				List<AnyType> valueTypes = inferAll.apply(ho.values());
+				List<StructElement> elements = new ArrayList<>(valueTypes.size());
+				Iterator<?> keys = ho.keySet().iterator();
+				for(AnyType valueType : valueTypes)
+					elements.add(new StructElement(stringType((String)keys.next()), valueType));
+				return structType(elements);
+			}
+
+			AnyType keyType = variantType(inferAll.apply(ho.keySet()));
+			AnyType valueType = variantType(inferAll.apply(ho.values()));
 			return hashType(keyType, valueType, sizeAsType(ho));
 		}
 		return infer(o);
@@ -165,6 +238,14 @@ class TypeCalculator extends Polymorphic<AnyType> {
 		return reduce(types, unitType(), AnyType::common);
 	}
 
+	private boolean isSampled(int size) {
+		return sampleSize > 0 && size > sampleSize;
+	}
+
+	private boolean isWidest(AnyType type) {
+		return type.getClass().equals(AnyType.class) || sampleSize > 0 && type == dataType();
+	}
+
 	private IntegerType sizeAsType(Collection<?> c) {
 		long sz = c.size();
 		return integerType(sz, sz);
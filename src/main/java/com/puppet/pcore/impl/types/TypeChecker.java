@@ -0,0 +1,484 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Sensitive;
+
+import java.util.*;
+
+/**
+ * An instance check compiled from a resolved type. The compiled checks form a graph of small predicates that
+ * are evaluated without a {@link ModelObject.RecursionGuard}, without lambdas, and without allocations for all
+ * structured types (Variant, Optional, NotUndef, Sensitive, Array, Tuple, Hash, Struct) and the common scalars.
+ * Other types are delegated to using {@link AnyType#isInstance(Object)}.
+ * <p>
+ * A recursive {@link TypeAliasType} is compiled into one check that is shared by all references to it, so the
+ * graph contains a cycle for each such alias. The compilation gives up and delegates the whole check to the
+ * type when two recursive aliases are entered for the same value since the recursion guard used by the
+ * type can then influence the outcome. Values nested deeper than {@link #MAX_DEPTH} are also delegated to the
+ * type so that self referencing collections are handled the same way.
+ */
+public final class TypeChecker {
+	static final int MAX_DEPTH = 512;
+
+	private static final class DepthExceeded extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		static final DepthExceeded SINGLETON = new DepthExceeded();
+
+		private DepthExceeded() {
+			super(null, null, false, false);
+		}
+	}
+
+	abstract static class Check {
+		abstract boolean test(Object o, int depth);
+	}
+
+	private static final Check ANY = new Check() {
+		@Override
+		boolean test(Object o, int depth) {
+			return true;
+		}
+	};
+
+	private static final Check UNDEF = new Check() {
+		@Override
+		boolean test(Object o, int depth) {
+			return o == null;
+		}
+	};
+
+	private static class AliasCheck extends Check {
+		Check check;
+
+		@Override
+		boolean test(Object o, int depth) {
+			return check.test(o, depth);
+		}
+	}
+
+	private static class ArrayCheck extends Check {
+		private final Check element;
+		private final long min;
+		private final long max;
+
+		ArrayCheck(Check element, IntegerType size) {
+			this.element = element;
+			this.min = size.min;
+			this.max = size.max;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(!(o instanceof List<?>))
+				return false;
+			List<?> lo = (List<?>)o;
+			int top = lo.size();
+			if(top < min || top > max)
+				return false;
+			if(element == ANY)
+				return true;
+			if(++depth > MAX_DEPTH)
+				throw DepthExceeded.SINGLETON;
+			if(lo instanceof RandomAccess) {
+				for(int idx = 0; idx < top; ++idx)
+					if(!element.test(lo.get(idx), depth))
+						return false;
+			} else {
+				for(Object v : lo)
+					if(!element.test(v, depth))
+						return false;
+			}
+			return true;
+		}
+	}
+
+	private static class EnumCheck extends Check {
+		private final Set<String> enums;
+
+		EnumCheck(List<String> enums) {
+			this.enums = new HashSet<>(enums);
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			return enums.isEmpty() ? o instanceof String : enums.contains(o);
+		}
+	}
+
+	private static class FloatCheck extends Check {
+		private final double min;
+		private final double max;
+
+		FloatCheck(FloatType type) {
+			this.min = type.min;
+			this.max = type.max;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(o instanceof Double || o instanceof Float) {
+				double v = ((Number)o).doubleValue();
+				return v >= min && v <= max;
+			}
+			return false;
+		}
+	}
+
+	private static class HashCheck extends Check {
+		private final Check key;
+		private final Check value;
+		private final long min;
+		private final long max;
+
+		HashCheck(Check key, Check value, IntegerType size) {
+			this.key = key;
+			this.value = value;
+			this.min = size.min;
+			this.max = size.max;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(!(o instanceof Map<?,?>))
+				return false;
+			Map<?,?> mo = (Map<?,?>)o;
+			int top = mo.size();
+			if(top < min || top > max)
+				return false;
+			if(key == ANY && value == ANY)
+				return true;
+			if(++depth > MAX_DEPTH)
+				throw DepthExceeded.SINGLETON;
+			for(Map.Entry<?,?> entry : mo.entrySet())
+				if(!(key.test(entry.getKey(), depth) && value.test(entry.getValue(), depth)))
+					return false;
+			return true;
+		}
+	}
+
+	private static class IntegerCheck extends Check {
+		private final long min;
+		private final long max;
+
+		IntegerCheck(IntegerType type) {
+			this.min = type.min;
+			this.max = type.max;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+				long v = ((Number)o).longValue();
+				return v >= min && v <= max;
+			}
+			return false;
+		}
+	}
+
+	private static class Leaf extends Check {
+		private final AnyType type;
+
+		Leaf(AnyType type) {
+			this.type = type;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			return type.isInstance(o);
+		}
+	}
+
+	private static class NotUndefCheck extends Check {
+		private final Check check;
+
+		NotUndefCheck(Check check) {
+			this.check = check;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			return o != null && check.test(o, depth);
+		}
+	}
+
+	private static class OptionalCheck extends Check {
+		private final Check check;
+
+		OptionalCheck(Check check) {
+			this.check = check;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			return o == null || check.test(o, depth);
+		}
+	}
+
+	private static class SensitiveCheck extends Check {
+		private final Check check;
+
+		SensitiveCheck(Check check) {
+			this.check = check;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(!(o instanceof Sensitive))
+				return false;
+			if(++depth > MAX_DEPTH)
+				throw DepthExceeded.SINGLETON;
+			return check.test(((Sensitive)o).unwrap(), depth);
+		}
+	}
+
+	private static class StringCheck extends Check {
+		private final long min;
+		private final long max;
+		private final String value;
+
+		StringCheck(StringType type) {
+			this.min = type.size.min;
+			this.max = type.size.max;
+			this.value = type.value;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(!(o instanceof String))
+				return false;
+			int len = ((String)o).length();
+			return len >= min && len <= max && (value == null || value.equals(o));
+		}
+	}
+
+	private static class StructCheck extends Check {
+		private final StructType type;
+		private final Check[] values;
+
+		StructCheck(StructType type, Check[] values) {
+			this.type = type;
+			this.values = values;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(!(o instanceof Map<?,?>))
+				return false;
+			if(++depth > MAX_DEPTH)
+				throw DepthExceeded.SINGLETON;
+			Map<?,?> mo = (Map<?,?>)o;
+			int moSize = mo.size();
+			if(moSize < type.size.min || moSize > type.size.max)
+				return false;
+
+			if(!type.hasSlots()) {
+				int matched = 0;
+				for(int idx = 0; idx < values.length; ++idx) {
+					String key = type.elements.get(idx).name;
+					Object v = mo.get(key);
+					if(v == null && !mo.containsKey(key)) {
+						if(!type.isOptional(idx))
+							return false;
+					} else {
+						++matched;
+						if(!values[idx].test(v, depth))
+							return false;
+					}
+				}
+				return matched == moSize;
+			}
+
+			int required = 0;
+			for(Map.Entry<?,?> entry : mo.entrySet()) {
+				int slot = type.slotOf(entry.getKey());
+				if(slot < 0 || !values[slot].test(entry.getValue(), depth))
+					return false;
+				if(!type.isOptional(slot))
+					++required;
+			}
+			return required == type.size.min;
+		}
+	}
+
+	private static class TupleCheck extends Check {
+		private final Check[] types;
+		private final long min;
+		private final long max;
+
+		TupleCheck(Check[] types, IntegerType size) {
+			this.types = types;
+			this.min = size.min;
+			this.max = size.max;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			if(!(o instanceof List<?>))
+				return false;
+			List<?> lo = (List<?>)o;
+			int top = lo.size();
+			if(top < min || top > max)
+				return false;
+			int last = types.length - 1;
+			if(last >= 0) {
+				if(++depth > MAX_DEPTH)
+					throw DepthExceeded.SINGLETON;
+				for(int idx = 0, tdx = 0; idx < top; ++idx) {
+					if(!types[tdx].test(lo.get(idx), depth))
+						return false;
+					if(tdx < last)
+						++tdx;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class VariantCheck extends Check {
+		private final Check[] checks;
+
+		VariantCheck(Check[] checks) {
+			this.checks = checks;
+		}
+
+		@Override
+		boolean test(Object o, int depth) {
+			for(Check check : checks)
+				if(check.test(o, depth))
+					return true;
+			return false;
+		}
+	}
+
+	private static class Compiler {
+		private final Map<TypeAliasType,AliasCheck> aliasChecks = new IdentityHashMap<>();
+		private boolean exact = true;
+
+		/**
+		 * @param type the type to compile
+		 * @param inRecursiveAlias {@code true} if a recursive alias has been entered for the value that
+		 *                         the compiled check will receive
+		 * @return the compiled check
+		 */
+		Check compile(AnyType type, boolean inRecursiveAlias) {
+			if(type instanceof TypeAliasType)
+				return compileAlias((TypeAliasType)type, inRecursiveAlias);
+
+			Class<?> tc = type.getClass();
+			if(tc == AnyType.class || tc == UnitType.class)
+				return ANY;
+			if(tc == UndefType.class)
+				return UNDEF;
+			if(tc == StringType.class)
+				return new StringCheck((StringType)type);
+			if(tc == IntegerType.class)
+				return new IntegerCheck((IntegerType)type);
+			if(tc == FloatType.class)
+				return new FloatCheck((FloatType)type);
+			if(tc == EnumType.class)
+				return new EnumCheck(((EnumType)type).enums);
+			if(tc == OptionalType.class)
+				return new OptionalCheck(compile(((OptionalType)type).type, inRecursiveAlias));
+			if(tc == NotUndefType.class)
+				return new NotUndefCheck(compile(((NotUndefType)type).type, inRecursiveAlias));
+			if(tc == SensitiveType.class)
+				return new SensitiveCheck(compile(((SensitiveType)type).type, false));
+			if(tc == VariantType.class)
+				return new VariantCheck(compileAll(((VariantType)type).types, inRecursiveAlias));
+			if(tc == ArrayType.class) {
+				ArrayType at = (ArrayType)type;
+				return new ArrayCheck(compile(at.type, false), at.size);
+			}
+			if(tc == HashType.class) {
+				HashType ht = (HashType)type;
+				return new HashCheck(compile(ht.keyType, false), compile(ht.type, false), ht.size);
+			}
+			if(tc == TupleType.class) {
+				TupleType tt = (TupleType)type;
+				return new TupleCheck(compileAll(tt.types, false), tt.givenOrActualSize);
+			}
+			if(tc == StructType.class)
+				return compileStruct((StructType)type);
+			return new Leaf(type);
+		}
+
+		private Check[] compileAll(List<AnyType> types, boolean inRecursiveAlias) {
+			int top = types.size();
+			Check[] checks = new Check[top];
+			for(int idx = 0; idx < top; ++idx)
+				checks[idx] = compile(types.get(idx), inRecursiveAlias);
+			return checks;
+		}
+
+		private Check compileAlias(TypeAliasType alias, boolean inRecursiveAlias) {
+			if(alias.hasValidator() || !alias.isResolved())
+				return new Leaf(alias);
+			if(!alias.isRecursive())
+				return compile(alias.resolvedType(), inRecursiveAlias);
+
+			if(inRecursiveAlias) {
+				exact = false;
+				return new Leaf(alias);
+			}
+
+			AliasCheck check = aliasChecks.get(alias);
+			if(check == null) {
+				check = new AliasCheck();
+				aliasChecks.put(alias, check);
+				check.check = compile(alias.resolvedType(), true);
+			}
+			return check;
+		}
+
+		private Check compileStruct(StructType type) {
+			List<StructElement> elements = type.elements;
+			int top = elements.size();
+			Check[] values = new Check[top];
+			for(int idx = 0; idx < top; ++idx)
+				values[idx] = compile(elements.get(idx).value, false);
+			return new StructCheck(type, values);
+		}
+	}
+
+	private final AnyType type;
+	private final Check root;
+
+	private TypeChecker(AnyType type, Check root) {
+		this.type = type;
+		this.root = root;
+	}
+
+	/**
+	 * Compiles the given type into a checker. The type should be resolved.
+	 *
+	 * @param type the type to compile
+	 * @return the compiled checker
+	 */
+	public static TypeChecker compile(AnyType type) {
+		Compiler compiler = new Compiler();
+		Check root = compiler.compile(type, false);
+		return new TypeChecker(type, compiler.exact ? root : new Leaf(type));
+	}
+
+	/**
+	 * Checks if the given value is an instance of the type that this checker was compiled from. The result
+	 * is always the same as the result of calling {@link AnyType#isInstance(Object)} on that type.
+	 *
+	 * @param o the value to check
+	 * @return {@code true} if the _o_ is an instance of the type
+	 */
+	public boolean isInstance(Object o) {
+		try {
+			return root.test(o, 0);
+		} catch(DepthExceeded e) {
+			return type.isInstance(o);
+		}
+	}
+
+	/**
+	 * @return the type that this checker was compiled from
+	 */
+	public AnyType type() {
+		return type;
+	}
+}
@@ -35,6 +35,8 @@ abstract class TypeContainerType extends AnyType {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		type.accept(visitor, guard);
 		super.accept(visitor, guard);
 	}
@@ -17,6 +17,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.puppet.pcore.impl.ConstructorImpl.hashConstructor;
 import static com.puppet.pcore.impl.FactoryDispatcherImpl.dispatcher;
@@ -30,9 +31,102 @@ import static java.util.Collections.emptyList;
 
 @SuppressWarnings({"unused", "WeakerAccess" })
 public class TypeFactory {
+	private static volatile TypeInterner interner;
+
 	private TypeFactory() {
 	}
 
+	/**
+	 * Enables or disables interning of the types created by this factory. When enabled, a type that is
+	 * equal to a previously created type that is still reachable will be returned instead of the newly
+	 * created type. Types that contain type references or unresolved aliases are never interned.
+	 *
+	 * @param enabled {@code true} to enable interning, {@code false} to disable it
+	 */
+	public static void setInterning(boolean enabled) {
+		interner = enabled ? new TypeInterner() : null;
+	}
+
+	/**
+	 * @return {@code true} if the types created by this factory are interned
+	 */
+	public static boolean isInterning() {
+		return interner != null;
+	}
+
+	/**
+	 * Enables parallel validation of Array, Hash, and Tuple instances that have at least <code>threshold</code>
+	 * elements. The elements are validated using the common {@link ForkJoinPool}.
+	 *
+	 * @param threshold the minimum number of elements that a collection must have to be validated in parallel
+	 */
+	public static void setParallelValidation(int threshold) {
+		setParallelValidation(ForkJoinPool.commonPool(), threshold);
+	}
+
+	/**
+	 * Enables parallel validation of Array, Hash, and Tuple instances that have at least <code>threshold</code>
+	 * elements.
+	 *
+	 * @param pool the pool to use for the validation
+	 * @param threshold the minimum number of elements that a collection must have to be validated in parallel
+	 */
+	public static void setParallelValidation(ForkJoinPool pool, int threshold) {
+		ParallelValidator.enable(pool, threshold);
+	}
+
+	/**
+	 * Disables parallel validation. This is the default.
+	 */
+	public static void disableParallelValidation() {
+		ParallelValidator.disable();
+	}
+
+	/**
+	 * @return the minimum number of elements that a collection must have to be validated in parallel or 0 when
+	 * parallel validation is disabled
+	 */
+	public static int parallelValidationThreshold() {
+		return ParallelValidator.threshold();
+	}
+
+	/**
+	 * Enables parallel resolution of the types declared in TypeSets that declare at least <code>threshold</code>
+	 * types. The types are resolved using the common {@link ForkJoinPool}. Parallel resolution doesn't apply when
+	 * TypeSets are resolved lazily.
+	 *
+	 * @param threshold the minimum number of types that a TypeSet must declare to be resolved in parallel
+	 */
+	public static void setParallelTypeSetResolution(int threshold) {
+		setParallelTypeSetResolution(ForkJoinPool.commonPool(), threshold);
+	}
+
+	/**
+	 * Enables parallel resolution of the types declared in TypeSets that declare at least <code>threshold</code>
+	 * types. Parallel resolution doesn't apply when TypeSets are resolved lazily.
+	 *
+	 * @param pool the pool to use for the resolution
+	 * @param threshold the minimum number of types that a TypeSet must declare to be resolved in parallel
+	 */
+	public static void setParallelTypeSetResolution(ForkJoinPool pool, int threshold) {
+		ParallelTypeSetResolver.enable(pool, threshold);
+	}
+
+	/**
+	 * Disables parallel resolution of TypeSets. This is the default.
+	 */
+	public static void disableParallelTypeSetResolution() {
+		ParallelTypeSetResolver.disable();
+	}
+
+	/**
+	 * @return the minimum number of types that a TypeSet must declare to be resolved in parallel or 0 when
+	 * parallel resolution is disabled
+	 */
+	public static int parallelTypeSetResolutionThreshold() {
+		return ParallelTypeSetResolver.threshold();
+	}
+
 	public static CallableType allCallableType() {
 		return CallableType.ALL;
 	}
@@ -67,7 +161,7 @@ public class TypeFactory {
 	public static ArrayType arrayType(AnyType elementType, IntegerType size) {
 		return AnyType.DEFAULT.equals(elementType) && IntegerType.POSITIVE.equals(size)
 				? ArrayType.DEFAULT
-				: new ArrayType(elementType, size);
+				: intern(new ArrayType(elementType, size));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -120,7 +214,7 @@ public class TypeFactory {
 	public static CallableType callableType(TupleType parametersType, CallableType blockType, AnyType returnType) {
 		return parametersType.equals(TupleType.DEFAULT) && blockType == null && returnType.equals(AnyType.DEFAULT)
 				? CallableType.DEFAULT
-				: new CallableType(parametersType, blockType, returnType);
+				: intern(new CallableType(parametersType, blockType, returnType));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -153,7 +247,7 @@ public class TypeFactory {
 	}
 
 	public static ClassType classType(String className) {
-		return className == null ? ClassType.DEFAULT : new ClassType(className);
+		return className == null ? ClassType.DEFAULT : intern(new ClassType(className));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -178,7 +272,7 @@ public class TypeFactory {
 	public static CollectionType collectionType(IntegerType sizeType) {
 		return IntegerType.POSITIVE.equals(sizeType)
 				? CollectionType.DEFAULT
-				: new CollectionType(anyType(), sizeType);
+				: intern(new CollectionType(anyType(), sizeType));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -217,11 +311,11 @@ public class TypeFactory {
 	}
 
 	public static EnumType enumType(String... enums) {
-		return enums.length == 0 ? EnumType.DEFAULT : new EnumType(Helpers.asList(enums));
+		return enums.length == 0 ? EnumType.DEFAULT : intern(new EnumType(Helpers.asList(enums)));
 	}
 
 	public static EnumType enumType(List<String> enums) {
-		return enums.isEmpty() ? EnumType.DEFAULT : new EnumType(unmodifiableCopy(enums));
+		return enums.isEmpty() ? EnumType.DEFAULT : intern(new EnumType(unmodifiableCopy(enums)));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -251,7 +345,7 @@ public class TypeFactory {
 	public static FloatType floatType(double min, double max) {
 		return min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY
 				? FloatType.DEFAULT
-				: new FloatType(min, max);
+				: intern(new FloatType(min, max));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -286,7 +380,7 @@ public class TypeFactory {
 	public static HashType hashType(AnyType keyType, AnyType valueType, IntegerType size) {
 		return AnyType.DEFAULT.equals(keyType) && AnyType.DEFAULT.equals(valueType) && IntegerType.POSITIVE.equals(size)
 				? HashType.DEFAULT
-				: new HashType(keyType, valueType, size);
+				: intern(new HashType(keyType, valueType, size));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -311,6 +405,37 @@ public class TypeFactory {
 		return TypeCalculator.SINGLETON.inferSet(value);
 	}
 
+	/**
+	 * Infers the same type as {@link #inferSet(Object)} but infers the elements of wide collections and hashes in
+	 * parallel using the common {@link ForkJoinPool}.
+	 *
+	 * @param value the value to infer a type for
+	 * @return the inferred type
+	 */
+	public static AnyType parallelInferSet(Object value) {
+		return parallelInferSet(ForkJoinPool.commonPool(), value);
+	}
+
+	/**
+	 * Infers the same type as {@link #inferSet(Object)} but infers the elements of wide collections and hashes in
+	 * parallel.
+	 *
+	 * @param pool the pool to use for the inference
+	 * @param value the value to infer a type for
+	 * @return the inferred type
+	 */
+	public static AnyType parallelInferSet(ForkJoinPool pool, Object value) {
+		return new ParallelInferrer(pool).inferSet(value);
+	}
+
+	public static AnyType infer(Object value, int sampleSize) {
+		return TypeCalculator.sampling(sampleSize).infer(value);
+	}
+
+	public static AnyType inferSet(Object value, int sampleSize) {
+		return TypeCalculator.sampling(sampleSize).inferSet(value);
+	}
+
 	// InitType
 	public static InitType initType() {
 		return InitType.DEFAULT;
@@ -355,7 +480,7 @@ public class TypeFactory {
 
 	public static IntegerType integerType(long min, long max) {
 		if(min == Long.MIN_VALUE)
-			return max == Long.MAX_VALUE ? IntegerType.DEFAULT : new IntegerType(min, max);
+			return max == Long.MAX_VALUE ? IntegerType.DEFAULT : intern(new IntegerType(min, max));
 
 		if(min == 0) {
 			if(max == 0)
@@ -363,7 +488,7 @@ public class TypeFactory {
 			if(max == Long.MAX_VALUE)
 				return IntegerType.POSITIVE;
 		}
-		return new IntegerType(min, max);
+		return intern(new IntegerType(min, max));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -384,7 +509,7 @@ public class TypeFactory {
 	}
 
 	public static IterableType iterableType(AnyType type) {
-		return AnyType.DEFAULT.equals(type) ? IterableType.DEFAULT : new IterableType(type);
+		return AnyType.DEFAULT.equals(type) ? IterableType.DEFAULT : intern(new IterableType(type));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -403,7 +528,7 @@ public class TypeFactory {
 	}
 
 	public static IteratorType iteratorType(AnyType type) {
-		return AnyType.DEFAULT.equals(type) ? IteratorType.DEFAULT : new IteratorType(type);
+		return AnyType.DEFAULT.equals(type) ? IteratorType.DEFAULT : intern(new IteratorType(type));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -422,11 +547,11 @@ public class TypeFactory {
 	}
 
 	public static NotUndefType notUndefType(AnyType type) {
-		return AnyType.DEFAULT.equals(type) ? NotUndefType.DEFAULT : new NotUndefType(type);
+		return AnyType.DEFAULT.equals(type) ? NotUndefType.DEFAULT : intern(new NotUndefType(type));
 	}
 
 	public static NotUndefType notUndefType(String string) {
-		return new NotUndefType(stringType(string));
+		return intern(new NotUndefType(stringType(string)));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -486,11 +611,11 @@ public class TypeFactory {
 	}
 
 	public static OptionalType optionalType(AnyType type) {
-		return AnyType.DEFAULT.equals(type) ? OptionalType.DEFAULT : new OptionalType(type);
+		return AnyType.DEFAULT.equals(type) ? OptionalType.DEFAULT : intern(new OptionalType(type));
 	}
 
 	public static OptionalType optionalType(String string) {
-		return new OptionalType(stringType(string));
+		return intern(new OptionalType(stringType(string)));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -511,11 +636,11 @@ public class TypeFactory {
 	}
 
 	public static PatternType patternType(Object... regexps) {
-		return regexps.length == 0 ? PatternType.DEFAULT : new PatternType(Helpers.asList(regexps));
+		return regexps.length == 0 ? PatternType.DEFAULT : intern(new PatternType(Helpers.asList(regexps)));
 	}
 
 	public static PatternType patternType(List<Object> regexps) {
-		return regexps.isEmpty() ? PatternType.DEFAULT : new PatternType(unmodifiableCopy(regexps));
+		return regexps.isEmpty() ? PatternType.DEFAULT : intern(new PatternType(unmodifiableCopy(regexps)));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -536,13 +661,13 @@ public class TypeFactory {
 	public static RegexpType regexpType(String patternString) {
 		return patternString == null || patternString.equals(RegexpType.DEFAULT_PATTERN)
 				? RegexpType.DEFAULT
-				: new RegexpType(patternString);
+				: intern(new RegexpType(patternString));
 	}
 
 	public static RegexpType regexpType(Regexp pattern) {
 		return pattern == null || pattern.toString().equals(RegexpType.DEFAULT_PATTERN)
 				? RegexpType.DEFAULT
-				: new RegexpType(pattern);
+				: intern(new RegexpType(pattern));
 	}
 
 	public static RegexpType regexpType(Object pattern) {
@@ -577,7 +702,7 @@ public class TypeFactory {
 	}
 
 	public static ResourceType resourceType(String typeName, String title) {
-		return typeName == null && title == null ? ResourceType.DEFAULT : new ResourceType(typeName, title);
+		return typeName == null && title == null ? ResourceType.DEFAULT : intern(new ResourceType(typeName, title));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -608,7 +733,7 @@ public class TypeFactory {
 	public static RuntimeType runtimeType(String runtimeName, String name, RegexpType pattern) {
 		return runtimeName == null && name == null && pattern == null
 				? RuntimeType.DEFAULT
-				: new RuntimeType(runtimeName, name, pattern);
+				: intern(new RuntimeType(runtimeName, name, pattern));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -661,11 +786,11 @@ public class TypeFactory {
 	}
 
 	public static SemVerType semVerType(VersionRange... ranges) {
-		return ranges.length == 0 ? SemVerType.DEFAULT : new SemVerType(Helpers.asList(ranges));
+		return ranges.length == 0 ? SemVerType.DEFAULT : intern(new SemVerType(Helpers.asList(ranges)));
 	}
 
 	public static SemVerType semVerType(List<VersionRange> ranges) {
-		return ranges.isEmpty() ? SemVerType.DEFAULT : new SemVerType(unmodifiableCopy(ranges));
+		return ranges.isEmpty() ? SemVerType.DEFAULT : intern(new SemVerType(unmodifiableCopy(ranges)));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -684,7 +809,7 @@ public class TypeFactory {
 	}
 
 	public static SensitiveType sensitiveType(AnyType type) {
-		return AnyType.DEFAULT.equals(type) ? SensitiveType.DEFAULT : new SensitiveType(type);
+		return AnyType.DEFAULT.equals(type) ? SensitiveType.DEFAULT : intern(new SensitiveType(type));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -718,11 +843,11 @@ public class TypeFactory {
 	}
 
 	public static StringType stringType(IntegerType size) {
-		return IntegerType.POSITIVE.equals(size) ? StringType.DEFAULT : new StringType(size);
+		return IntegerType.POSITIVE.equals(size) ? StringType.DEFAULT : intern(new StringType(size));
 	}
 
 	public static StringType stringType(String value) {
-		return value == null ? StringType.DEFAULT : new StringType(value);
+		return value == null ? StringType.DEFAULT : intern(new StringType(value));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -762,11 +887,11 @@ public class TypeFactory {
 	}
 
 	public static StructType structType(StructElement... elements) {
-		return elements.length == 0 ? StructType.DEFAULT : new StructType(Helpers.asList(elements));
+		return elements.length == 0 ? StructType.DEFAULT : intern(new StructType(Helpers.asList(elements)));
 	}
 
 	public static StructType structType(List<StructElement> elements) {
-		return elements.isEmpty() ? StructType.DEFAULT : new StructType(unmodifiableCopy(elements));
+		return elements.isEmpty() ? StructType.DEFAULT : intern(new StructType(unmodifiableCopy(elements)));
 	}
 
 	public static StructType structTypeStrings(Map<String,AnyType> elements) {
@@ -806,7 +931,7 @@ public class TypeFactory {
 	}
 
 	public static TimeSpanType timeSpanType(Duration min, Duration max) {
-		return new TimeSpanType(min, max);
+		return intern(new TimeSpanType(min, max));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -831,7 +956,7 @@ public class TypeFactory {
 	}
 
 	public static TimestampType timestampType(Instant min, Instant max) {
-		return new TimestampType(min, max);
+		return intern(new TimestampType(min, max));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -869,7 +994,7 @@ public class TypeFactory {
 			if(IntegerType.POSITIVE.equals(size))
 				return TupleType.DEFAULT;
 		}
-		return new TupleType(unmodifiableCopy(types), size);
+		return intern(new TupleType(unmodifiableCopy(types), size));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -973,7 +1098,7 @@ public class TypeFactory {
 	}
 
 	public static TypeType typeType(AnyType type) {
-		return AnyType.DEFAULT.equals(type) ? TypeType.DEFAULT : new TypeType(type);
+		return AnyType.DEFAULT.equals(type) ? TypeType.DEFAULT : intern(new TypeType(type));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -1026,7 +1151,7 @@ public class TypeFactory {
 		case 1:
 			return types.get(0);
 		default:
-			return new VariantType(unmodifiableCopy(types));
+			return intern(new VariantType(unmodifiableCopy(types)));
 		}
 	}
 
@@ -1041,7 +1166,16 @@ public class TypeFactory {
 		return (FactoryDispatcher<VariantType>)fd;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static <T extends AnyType> T intern(T type) {
+		TypeInterner ti = interner;
+		return ti == null ? type : (T)ti.intern(type);
+	}
+
 	public static AnyType[] registerPcoreTypes(PcoreImpl pcore) {
+		((TypeAliasType)pcore.data).setValidator(DataValidator.DATA);
+		((TypeAliasType)pcore.richDataKey).setValidator(DataValidator.RICH_DATA_KEY);
+		((TypeAliasType)pcore.richData).setValidator(DataValidator.RICH_DATA);
 		return new AnyType[] {
 			AnyType.registerPcoreType(pcore),
 			ArrayType.registerPcoreType(pcore),
@@ -0,0 +1,34 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.semver.WeakCache;
+
+/**
+ * Maps types to a canonical instance using weak references. The cache is divided into stripes, each
+ * guarded by its own lock, so that threads creating different types rarely contend.
+ */
+class TypeInterner {
+	private static final int STRIPES = 32;
+
+	private final WeakCache<AnyType>[] stripes;
+
+	@SuppressWarnings("unchecked")
+	TypeInterner() {
+		stripes = (WeakCache<AnyType>[])new WeakCache<?>[STRIPES];
+		for(int idx = 0; idx < STRIPES; ++idx)
+			stripes[idx] = new WeakCache<>();
+	}
+
+	/**
+	 * Returns the canonical instance of the given type. The type becomes the canonical instance unless an equal
+	 * type is already known. A type that isn't settled is returned as is.
+	 *
+	 * @param type the type to intern
+	 * @return the canonical instance
+	 */
+	AnyType intern(AnyType type) {
+		if(!type.isSettled())
+			return type;
+		int h = type.hashCode();
+		return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)].cache(type);
+	}
+}
@@ -52,6 +52,11 @@ public class TypeReferenceType extends AnyType {
 		return o instanceof TypeReferenceType && typeString.equals(((TypeReferenceType)o).typeString);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return false;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return false;
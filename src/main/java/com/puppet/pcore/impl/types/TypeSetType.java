@@ -6,7 +6,6 @@ import com.puppet.pcore.impl.PcoreImpl;
 import com.puppet.pcore.impl.TypeEvaluatorImpl;
 import com.puppet.pcore.impl.loader.TypeSetLoader;
 import com.puppet.pcore.loader.Loader;
-import com.puppet.pcore.loader.TypedName;
 import com.puppet.pcore.parser.Expression;
 import com.puppet.pcore.parser.model.*;
 import com.puppet.pcore.semver.Version;
@@ -16,6 +15,7 @@ import com.puppet.pcore.serialization.ArgumentsAccessor;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.puppet.pcore.impl.Constants.*;
 import static com.puppet.pcore.impl.Helpers.*;
@@ -66,8 +66,7 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 		}
 
 		public void resolve(Pcore pcore) {
-			TypedName tn = new TypedName("type", name, nameAuthority);
-			Object type = pcore().loader().load(tn);
+			Object type = pcore().loader().load("type", name, nameAuthority);
 			if(!(type instanceof TypeSetType))
 				throw new TypeResolverException(format("%s resolves to a %s", this, type));
 
@@ -121,6 +120,11 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 	private Version version;
 	private boolean resolved = false;
 
+	// Only used when types are resolved on first access. See resolvedType(String, AnyType)
+	private volatile Pcore memberScope;
+	private final Map<String,AnyType> resolvedMembers = new ConcurrentHashMap<>();
+	private final Map<String,AnyType> stagedMembers = new HashMap<>();
+
 	@SuppressWarnings("unchecked")
 	TypeSetType(ArgumentsAccessor args) throws IOException {
 		super((Expression)null);
@@ -165,11 +169,13 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 		AnyType type = types.get(qName);
 		if(type == null) {
 			String ccName = ccName(qName);
-			if(ccName != null)
+			if(ccName != null) {
 				type = types.get(ccName);
+				qName = ccName;
+			}
 		}
 		if(type != null)
-			return type;
+			return resolvedType(qName, type);
 
 		if(references.isEmpty())
 			return null;
@@ -211,7 +217,7 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 			result.put(KEY_NAME, name);
 		result.put(KEY_VERSION, version);
 		if(!types.isEmpty())
-			result.put(KEY_TYPES, unmodifiableCopy(types));
+			result.put(KEY_TYPES, unmodifiableCopy(resolvedTypes()));
 		if(!references.isEmpty()) {
 			LinkedHashMap<String,Map<String,Object>> refs = new LinkedHashMap<>();
 			for(Map.Entry<String,Reference> entry : references.entrySet())
@@ -260,8 +266,22 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 			ref.resolve(pcore);
 
 		Pcore tsPcore = pcore.withTypeSetScope(this);
-		for(Map.Entry<String,AnyType> entry : types.entrySet())
-			entry.setValue(entry.getValue().resolve(tsPcore));
+		if(pcore.lazyTypeSets()) {
+			// The types are bound to the scope of this type set now so that they resolve correctly also
+			// when they are found by their qualified name in some other loader.
+			for(AnyType type : types.values())
+				type.assignPcore(tsPcore);
+			types = unmodifiableCopy(types);
+			memberScope = tsPcore;
+			return this;
+		}
+
+		ParallelTypeSetResolver parallelResolver = ParallelTypeSetResolver.forSize(types.size());
+		if(parallelResolver != null)
+			types = parallelResolver.resolve(name, types, tsPcore);
+		else
+			for(Map.Entry<String,AnyType> entry : types.entrySet())
+				entry.setValue(entry.getValue().resolve(tsPcore));
 		types = unmodifiableCopy(types);
 		return this;
 	}
@@ -299,6 +319,8 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		super.accept(visitor, guard);
 		for(AnyType type : types.values())
 			type.accept(visitor, guard);
@@ -464,6 +486,62 @@ public class TypeSetType extends MetaType implements PuppetObjectWithHash {
 		return dcToCcMap.get(name.toLowerCase(Locale.ENGLISH));
 	}
 
+	/**
+	 * Returns the resolved form of a type declared in this type set. Unless lazy resolution is in effect, the
+	 * type has been resolved already. Otherwise it is resolved here on first access.
+	 * <p>
+	 * A type that is resolved lazily may need to look up other types in this set, which then are resolved by the
+	 * same thread. None of them are made visible to other threads until the outermost resolution has completed.
+	 * A lookup of a type that is still being resolved by the current thread yields the unresolved type, just like
+	 * when all types are resolved together.
+	 *
+	 * @param name the name of the type in this type set
+	 * @param type the type as declared
+	 * @return the resolved type
+	 */
+	private AnyType resolvedType(String name, AnyType type) {
+		Pcore scope = memberScope;
+		if(scope == null)
+			return type;
+
+		AnyType resolved = resolvedMembers.get(name);
+		if(resolved != null)
+			return resolved;
+
+		synchronized(stagedMembers) {
+			resolved = resolvedMembers.get(name);
+			if(resolved != null)
+				return resolved;
+
+			if(stagedMembers.containsKey(name)) {
+				resolved = stagedMembers.get(name);
+				return resolved == null ? type : resolved;
+			}
+
+			boolean outermost = stagedMembers.isEmpty();
+			stagedMembers.put(name, null);
+			try {
+				resolved = type.resolve(scope);
+				stagedMembers.put(name, resolved);
+				if(outermost)
+					resolvedMembers.putAll(stagedMembers);
+			} finally {
+				if(outermost)
+					stagedMembers.clear();
+			}
+			return resolved;
+		}
+	}
+
+	private Map<String,AnyType> resolvedTypes() {
+		if(memberScope == null)
+			return types;
+		Map<String,AnyType> result = new LinkedHashMap<>();
+		for(Map.Entry<String,AnyType> entry : types.entrySet())
+			result.put(entry.getKey(), resolvedType(entry.getKey(), entry.getValue()));
+		return result;
+	}
+
 	private URI resolveNameAuthority(Map<String,Object> initHash) {
 		URI nameAuth = nameAuthority;
 		if(nameAuth != null)
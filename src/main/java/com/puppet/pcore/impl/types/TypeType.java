@@ -62,6 +62,11 @@ public class TypeType extends TypeContainerType {
 		return new TypeType(type, resolved);
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return isA(cls, AnyType.class) || cls == Class.class;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		if(o instanceof AnyType)
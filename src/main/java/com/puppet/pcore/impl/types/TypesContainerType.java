@@ -46,6 +46,8 @@ abstract class TypesContainerType extends AnyType {
 
 	@Override
 	void accept(Visitor visitor, RecursionGuard guard) {
+		if(visitor.skip(this))
+			return;
 		for(AnyType type : types)
 			type.accept(visitor, guard);
 		super.accept(visitor, guard);
@@ -31,6 +31,11 @@ public class UndefType extends AnyType {
 		pcore.registerImpl(ptype, undefTypeDispatcher());
 	}
 
+	@Override
+	boolean couldBeInstance(Class<?> cls) {
+		return cls == null;
+	}
+
 	@Override
 	boolean isInstance(Object o, RecursionGuard guard) {
 		return o == null;
@@ -5,6 +5,7 @@ import com.puppet.pcore.impl.Helpers;
 import com.puppet.pcore.impl.PcoreImpl;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.puppet.pcore.impl.Helpers.*;
 import static com.puppet.pcore.impl.types.TypeFactory.*;
@@ -14,8 +15,19 @@ import static java.util.Collections.singletonList;
 public class VariantType extends TypesContainerType {
 	static final VariantType DEFAULT = new VariantType(Collections.emptyList());
 
+	/**
+	 * Variants with fewer members than this are always checked linearly
+	 */
+	static final int INDEX_THRESHOLD = 4;
+
+	private static final AnyType[] NO_CANDIDATES = new AnyType[0];
+
 	private static ObjectType ptype;
 
+	private volatile Map<Class<?>,AnyType[]> candidatesByClass;
+
+	private volatile AnyType[] undefCandidates;
+
 	VariantType(List<AnyType> variants) {
 		this(variants, false);
 	}
@@ -56,8 +68,22 @@ public class VariantType extends TypesContainerType {
 	}
 
 	@Override
-	boolean isInstance(Object o, RecursionGuard guard) {
+	boolean couldBeInstance(Class<?> cls) {
 		for(AnyType type : types)
+			if(type.couldBeInstance(cls))
+				return true;
+		return false;
+	}
+
+	@Override
+	boolean isInstance(Object o, RecursionGuard guard) {
+		if(types.size() < INDEX_THRESHOLD) {
+			for(AnyType type : types)
+				if(type.isInstance(o, guard))
+					return true;
+			return false;
+		}
+		for(AnyType type : candidates(o))
 			if(type.isInstance(o, guard))
 				return true;
 		return false;
@@ -66,7 +92,17 @@ public class VariantType extends TypesContainerType {
 	@Override
 	int isReallyInstance(Object o, RecursionGuard guard) {
 		int state = -1;
-		for(AnyType type : types) {
+		if(types.size() < INDEX_THRESHOLD) {
+			for(AnyType type : types) {
+				int r = type.isReallyInstance(o, guard);
+				if(r == 1)
+					return 1;
+				if(r > state)
+					state = r;
+			}
+			return state;
+		}
+		for(AnyType type : candidates(o)) {
 			int r = type.isReallyInstance(o, guard);
 			if(r == 1)
 				return 1;
@@ -76,6 +112,47 @@ public class VariantType extends TypesContainerType {
 		return state;
 	}
 
+	/**
+	 * Returns the members of this variant that could have the given value as an instance, in the order that
+	 * they appear in the variant. Members that are left out would fail the instance check for the value so
+	 * skipping them does not change the result. The candidates are computed once for each class of value.
+	 *
+	 * @param o the value to find candidates for
+	 * @return the candidate members
+	 */
+	AnyType[] candidates(Object o) {
+		if(o == null) {
+			AnyType[] candidates = undefCandidates;
+			if(candidates == null)
+				undefCandidates = candidates = computeCandidates(null);
+			return candidates;
+		}
+
+		Map<Class<?>,AnyType[]> index = candidatesByClass;
+		if(index == null) {
+			synchronized(this) {
+				index = candidatesByClass;
+				if(index == null)
+					candidatesByClass = index = new ConcurrentHashMap<>();
+			}
+		}
+		Class<?> cls = o.getClass();
+		AnyType[] candidates = index.get(cls);
+		if(candidates == null) {
+			candidates = computeCandidates(cls);
+			index.putIfAbsent(cls, candidates);
+		}
+		return candidates;
+	}
+
+	private AnyType[] computeCandidates(Class<?> cls) {
+		List<AnyType> candidates = new ArrayList<>(types.size());
+		for(AnyType type : types)
+			if(type.couldBeInstance(cls))
+				candidates.add(type);
+		return candidates.isEmpty() ? NO_CANDIDATES : candidates.toArray(new AnyType[candidates.size()]);
+	}
+
 	@Override
 	boolean isUnsafeAssignable(AnyType type, RecursionGuard guard) {
 		return any(types, variant -> variant.isAssignable(type, guard));
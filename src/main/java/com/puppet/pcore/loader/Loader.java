@@ -6,6 +6,11 @@ import com.puppet.pcore.TypeRedefinedException;
 import java.net.URI;
 
 public interface Loader {
+	/**
+	 * Returned from {@link #generation()} by loaders that don't track their generation
+	 */
+	long UNKNOWN_GENERATION = -1L;
+
 	/**
 	 * Bind an object to a {@link TypedName}. Throws an exception if this loader or a loader
 	 * in the parent chain of loaders already has an object bound by the same name.
@@ -32,6 +37,18 @@ public interface Loader {
 	 */
 	void freeze();
 
+	/**
+	 * Returns a number that increases every time an object is bound in this loader or in a loader in its
+	 * parent chain. Results computed from what this loader finds remain valid for as long as the number
+	 * doesn't change. Results are never cached for a loader that returns {@link #UNKNOWN_GENERATION}, which is
+	 * what the default implementation does.
+	 *
+	 * @return the current generation of this loader or {@link #UNKNOWN_GENERATION}
+	 */
+	default long generation() {
+		return UNKNOWN_GENERATION;
+	}
+
 	/**
 	 * @return the default name authority for this loader.
 	 */
@@ -57,4 +74,33 @@ public interface Loader {
 	 * @return the loaded object or {@code null} if no such object could be found
 	 */
 	Object loadOrNull(TypedName name);
+
+	/**
+	 * Lookup and load and return the object that maps to the given type, name, and name authority. The
+	 * typed name used for the lookup is obtained from the {@link TypedName} pool so a repeated lookup does
+	 * not allocate.
+	 *
+	 * @param type          the type to use for the lookup
+	 * @param name          the name to use for the lookup
+	 * @param nameAuthority the name authority to use for the lookup
+	 * @return the loaded object
+	 * @throws NoSuchTypeException if no object could be found for the given name
+	 */
+	default Object load(String type, String name, URI nameAuthority) throws NoSuchTypeException {
+		return load(TypedName.of(type, name, nameAuthority));
+	}
+
+	/**
+	 * Lookup and load and return the object that maps to the given type, name, and name authority. The
+	 * typed name used for the lookup is obtained from the {@link TypedName} pool so a repeated lookup does
+	 * not allocate.
+	 *
+	 * @param type          the type to use for the lookup
+	 * @param name          the name to use for the lookup
+	 * @param nameAuthority the name authority to use for the lookup
+	 * @return the loaded object or {@code null} if no such object could be found
+	 */
+	default Object loadOrNull(String type, String name, URI nameAuthority) {
+		return loadOrNull(TypedName.of(type, name, nameAuthority));
+	}
 }
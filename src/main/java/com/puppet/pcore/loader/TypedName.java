@@ -1,15 +1,28 @@
 package com.puppet.pcore.loader;
 
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.puppet.pcore.impl.Constants.RUNTIME_NAME_AUTHORITY;
 import static com.puppet.pcore.impl.Helpers.splitName;
 
 /**
  * A typed name consists of a type, a case insensitive name, and a name authority. This class is optimized
- * to use as a key in a hash lookup.
+ * to use as a key in a hash lookup. The case insensitive hash is computed directly from the parts so no
+ * intermediate strings are created.
+ * <p>
+ * Instances that are obtained using {@link #of(String, String, URI)} are pooled so that repeated lookups of
+ * the same name don't allocate.
  */
 public class TypedName implements Comparable<TypedName> {
+	/**
+	 * No more names are added to the pool for a given name authority and type once it has this many entries
+	 */
+	private static final int MAX_POOLED_NAMES = 8192;
+
+	private static final Map<URI,Map<String,Map<String,TypedName>>> pool = new ConcurrentHashMap<>();
+
 	/**
 	 * The name (case preserved)
 	 */
@@ -25,35 +38,66 @@ public class TypedName implements Comparable<TypedName> {
 	 */
 	public final String type;
 
-	private final String compoundName;
-	private final String canonicalName;
+	private final String authority;
 	private final int hash;
-	private final String[] nameParts;
+	private String compoundName;
+	private String canonicalName;
+
+	/**
+	 * Returns a pooled typed name with the given type and name in the runtime name authority.
+	 *
+	 * @param type the type
+	 * @param name the name
+	 * @return the typed name
+	 */
+	public static TypedName of(String type, String name) {
+		return of(type, name, RUNTIME_NAME_AUTHORITY);
+	}
+
+	/**
+	 * Returns a pooled typed name with the given type, name, and name authority.
+	 *
+	 * @param type the type
+	 * @param name the name
+	 * @param nameAuthority the name authority
+	 * @return the typed name
+	 */
+	public static TypedName of(String type, String name, URI nameAuthority) {
+		Map<String,Map<String,TypedName>> types = pool.get(nameAuthority);
+		if(types == null)
+			types = pool.computeIfAbsent(nameAuthority, k -> new ConcurrentHashMap<>());
+		Map<String,TypedName> names = types.get(type);
+		if(names == null)
+			names = types.computeIfAbsent(type, k -> new ConcurrentHashMap<>());
+		TypedName tn = names.get(name);
+		if(tn == null) {
+			tn = new TypedName(type, name, nameAuthority);
+			if(names.size() < MAX_POOLED_NAMES) {
+				TypedName prev = names.putIfAbsent(name, tn);
+				if(prev != null)
+					tn = prev;
+			}
+		}
+		return tn;
+	}
 
 	public TypedName(String type, String name) {
 		this(type, name, RUNTIME_NAME_AUTHORITY);
 	}
 
 	public TypedName(String type, String name, URI nameAuthority) {
-		this.type = type;
-		this.nameAuthority = nameAuthority;
-		String[] parts = splitName(name);
-		if(parts.length > 0 && parts[0].isEmpty()) {
-			String[] np = new String[parts.length - 1];
-			System.arraycopy(parts, 1, np, 0, np.length);
-			parts = np;
+		if(name.startsWith("::"))
 			name = name.substring(2);
-		}
+		this.type = type;
 		this.name = name;
-		nameParts = parts;
-		compoundName = nameAuthority.toString() + '/' + type + '/' + name;
-		canonicalName = compoundName.toLowerCase();
-		hash = canonicalName.hashCode();
+		this.nameAuthority = nameAuthority;
+		authority = nameAuthority.toString();
+		hash = caseInsensitiveHash(caseInsensitiveHash(caseInsensitiveHash(0, authority), type), name);
 	}
 
 	@Override
 	public int compareTo(TypedName o) {
-		return canonicalName.compareTo(o.canonicalName);
+		return canonicalName().compareTo(o.canonicalName());
 	}
 
 	/**
@@ -62,7 +106,12 @@ public class TypedName implements Comparable<TypedName> {
 	 * @return {@code true} if the objects are equal
 	 */
 	public boolean equals(Object o) {
-		return o instanceof TypedName && canonicalName.equals(((TypedName)o).canonicalName);
+		if(this == o)
+			return true;
+		if(!(o instanceof TypedName))
+			return false;
+		TypedName tn = (TypedName)o;
+		return hash == tn.hash && name.equalsIgnoreCase(tn.name) && type.equalsIgnoreCase(tn.type) && authority.equalsIgnoreCase(tn.authority);
 	}
 
 	/**
@@ -77,7 +126,7 @@ public class TypedName implements Comparable<TypedName> {
 	 * @return {@code true} if the name part of this typed name is a qualified name (uses :: separator)
 	 */
 	public boolean isQualified() {
-		return nameParts.length > 1;
+		return splitName(name).length > 1;
 	}
 
 	/**
@@ -86,6 +135,23 @@ public class TypedName implements Comparable<TypedName> {
 	 * @return a string with {@code "<name authority>/<type>/<name>"}
 	 */
 	public String toString() {
-		return compoundName;
+		String cn = compoundName;
+		if(cn == null)
+			compoundName = cn = authority + '/' + type + '/' + name;
+		return cn;
+	}
+
+	private String canonicalName() {
+		String cn = canonicalName;
+		if(cn == null)
+			canonicalName = cn = toString().toLowerCase();
+		return cn;
+	}
+
+	private static int caseInsensitiveHash(int h, String s) {
+		int top = s.length();
+		for(int idx = 0; idx < top; ++idx)
+			h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(idx)));
+		return h;
 	}
 }
@@ -16,7 +16,7 @@ public class Regexp {
 	public static final int IGNORECASE = Option.IGNORECASE;
 
 	public final String pattern;
-	private final Regex regex;
+	final Regex regex;
 
 	public static String quote(String str) {
 		return quote(new ByteList(str), UTF8Encoding.INSTANCE).toString();
@@ -0,0 +1,86 @@
+package com.puppet.pcore.regex;
+
+import org.joni.Option;
+import org.joni.Regex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * A set of {@link Regexp} instances that can answer whether any of them is found in a string. The string is
+ * encoded only once regardless of the number of regexps in the set.
+ * <p>
+ * When possible, the regexps are compiled into one alternation so that a single search is enough. Regexps
+ * that use numbered back references, conditional groups, named groups, subexpression calls, or extended syntax
+ * cannot be combined without changing their meaning. A set that contains such a regexp will instead search the
+ * encoded string with each regexp in turn.
+ */
+public class RegexpSet {
+	private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\[1-9kg]|\\(\\?\\(|\\(\\?<[A-Za-z_]|\\(\\?'|\\(\\?[a-z-]*x");
+
+	private final Regex[] regexes;
+	private final boolean combined;
+
+	public RegexpSet(Collection<Regexp> regexps) {
+		Regex union = null;
+		if(regexps.size() > 1 && isCombinable(regexps)) {
+			StringBuilder bld = new StringBuilder();
+			for(Regexp regexp : regexps) {
+				if(bld.length() > 0)
+					bld.append('|');
+				bld.append("(?:").append(regexp.pattern).append(')');
+			}
+			try {
+				union = new Regex(bld.toString());
+			} catch(RuntimeException e) {
+				// Fall back to using the regexps one by one
+			}
+		}
+
+		combined = union != null;
+		if(union != null)
+			regexes = new Regex[] { union };
+		else {
+			regexes = new Regex[regexps.size()];
+			int idx = 0;
+			for(Regexp regexp : regexps)
+				regexes[idx++] = regexp.regex;
+		}
+	}
+
+	/**
+	 * @return {@code true} if the set has no regexps
+	 */
+	public boolean isEmpty() {
+		return regexes.length == 0;
+	}
+
+	/**
+	 * @return {@code true} if the regexps of this set have been combined into one
+	 */
+	public boolean isCombined() {
+		return combined;
+	}
+
+	/**
+	 * Checks if any regexp in this set is found in the given string.
+	 *
+	 * @param str the string to search
+	 * @return {@code true} if at least one regexp was found
+	 */
+	public boolean find(String str) {
+		byte[] source = str.getBytes(StandardCharsets.UTF_8);
+		for(Regex regex : regexes)
+			if(regex.matcher(source).search(0, source.length, Option.DEFAULT) >= 0)
+				return true;
+		return false;
+	}
+
+	private static boolean isCombinable(Collection<Regexp> regexps) {
+		for(Regexp regexp : regexps)
+			if(NOT_COMBINABLE.matcher(regexp.pattern).find())
+				return false;
+		return true;
+	}
+}
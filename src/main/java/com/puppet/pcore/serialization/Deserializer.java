@@ -13,6 +13,18 @@ public interface Deserializer {
 	 */
 	Object read() throws IOException;
 
+	/**
+	 * Make this deserializer ready to read a new message from the same input source. The rest of the current message, if
+	 * any, is skipped as described in {@link Reader#reset()}. Objects read before the reset can no longer be referenced.
+	 * <p>
+	 * The default implementation throws an {@link UnsupportedOperationException}.
+	 *
+	 * @throws IOException propagated from the underlying reader
+	 */
+	default void reset() throws IOException {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot be reset");
+	}
+
 	/**
 	 * @return the reader used by this deserializer
 	 */
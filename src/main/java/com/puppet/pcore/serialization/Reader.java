@@ -29,6 +29,19 @@ public interface Reader {
 	 */
 	Object read() throws IOException;
 
+	/**
+	 * Make this reader ready to read a new message. The rest of the current message, if any, is skipped. A format that
+	 * doesn't delimit its messages, such as MessagePack, skips the rest of the top-level value that is being read.
+	 * Tabulation starts over while registered extensions and buffers are kept.
+	 * <p>
+	 * The default implementation throws an {@link UnsupportedOperationException}.
+	 *
+	 * @throws IOException propagated from the underlying unpacker
+	 */
+	default void reset() throws IOException {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot be reset");
+	}
+
 	/**
 	 * Initialize the reader with a new set of values that has been read by some other parser.
 	 * Only the JSON reader supports this.
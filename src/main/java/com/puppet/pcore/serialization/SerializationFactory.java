@@ -29,4 +29,55 @@ public interface SerializationFactory {
 	Deserializer forInputChunks(Pcore pcore);
 
 	Serializer forOutput(Pcore pcore, Map<String,Object> options, OutputStream out) throws IOException;
+
+	/**
+	 * Returns a serializer that writes to the given output. The serializer, along with its writer and buffers, is
+	 * reused from earlier sessions on the calling thread when possible. It must be finished and then handed back using
+	 * {@link #release(Serializer)} by the same thread.
+	 * <p>
+	 * The default implementation returns a new serializer from {@link #forOutput(Pcore, Map, OutputStream)}.
+	 *
+	 * @param pcore the pcore to use when inferring types
+	 * @param options serialization options
+	 * @param out the output
+	 * @return the serializer
+	 * @throws IOException propagated from the writer
+	 */
+	default Serializer acquireSerializer(Pcore pcore, Map<String,Object> options, OutputStream out) throws IOException {
+		return forOutput(pcore, options, out);
+	}
+
+	/**
+	 * Hand back a serializer obtained from {@link #acquireSerializer(Pcore, Map, OutputStream)} so that it can be reused.
+	 * The default implementation does nothing.
+	 *
+	 * @param serializer the serializer
+	 */
+	default void release(Serializer serializer) {
+	}
+
+	/**
+	 * Returns a deserializer that reads from the given input. The deserializer, along with its reader and buffers, is
+	 * reused from earlier sessions on the calling thread when possible. It must be handed back using
+	 * {@link #release(Deserializer)} by the same thread.
+	 * <p>
+	 * The default implementation returns a new deserializer from {@link #forInput(Pcore, InputStream)}.
+	 *
+	 * @param pcore the pcore to use when resolving types
+	 * @param in the input
+	 * @return the deserializer
+	 * @throws IOException propagated from the reader
+	 */
+	default Deserializer acquireDeserializer(Pcore pcore, InputStream in) throws IOException {
+		return forInput(pcore, in);
+	}
+
+	/**
+	 * Hand back a deserializer obtained from {@link #acquireDeserializer(Pcore, InputStream)} so that it can be reused.
+	 * The default implementation does nothing.
+	 *
+	 * @param deserializer the deserializer
+	 */
+	default void release(Deserializer deserializer) {
+	}
 }
@@ -13,6 +13,19 @@ public interface Serializer {
 	 */
 	void finish() throws IOException;
 
+	/**
+	 * Make this serializer ready to write a new message to the same output target. Objects written before the
+	 * reset will be written again rather than referenced when they are encountered. Must be called after
+	 * {@link #finish()}.
+	 * <p>
+	 * The default implementation throws an {@link UnsupportedOperationException}.
+	 *
+	 * @throws IOException propagated from the underlying writer
+	 */
+	default void reset() throws IOException {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot be reset");
+	}
+
 	/**
 	 * Write next object.
 	 * @param value the value to write
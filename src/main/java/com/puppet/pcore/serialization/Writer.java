@@ -27,6 +27,18 @@ public interface Writer {
 	 */
 	void finish() throws IOException;
 
+	/**
+	 * Make this writer ready to write a new message after {@link #finish()}. Tabulation starts over while
+	 * registered extensions and buffers are kept.
+	 * <p>
+	 * The default implementation throws an {@link UnsupportedOperationException}.
+	 *
+	 * @throws IOException propagated from the underlying packer
+	 */
+	default void reset() throws IOException {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot be reset");
+	}
+
 	/**
 	 * Write an object
 	 *
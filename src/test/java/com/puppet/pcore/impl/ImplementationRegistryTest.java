@@ -0,0 +1,61 @@
+package com.puppet.pcore.impl;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.impl.types.ObjectType;
+import com.puppet.pcore.serialization.FactoryDispatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static com.puppet.pcore.impl.FactoryDispatcherImpl.dispatcher;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("ImplementationRegistryImpl")
+public class ImplementationRegistryTest {
+	private static ObjectType declare(Pcore pcore, String name) {
+		return (ObjectType)pcore.typeEvaluator().declareType(name, "Object[{attributes => {a => Integer}}]");
+	}
+
+	@Test
+	@DisplayName("finds registrations of the parent and itself when frozen")
+	void flattened() {
+		PcoreImpl pcore = (PcoreImpl)Pcore.create();
+		ObjectType target = (ObjectType)Pcore.staticPcore().typeEvaluator().resolveType("Target");
+		ObjectType mine = declare(pcore, "Mine");
+		FactoryDispatcher<Object> creator = dispatcher();
+		Function<Object,Object[]> provider = o -> new Object[0];
+		pcore.implementationRegistry().registerImplementation(mine, creator, provider);
+
+		FactoryDispatcher<?> targetCreator = pcore.implementationRegistry().creatorFor(target);
+		assertNotNull(targetCreator);
+
+		pcore.freeze();
+		assertSame(creator, pcore.implementationRegistry().creatorFor(mine));
+		assertSame(provider, pcore.implementationRegistry().attributeProviderFor(mine));
+		assertSame(targetCreator, pcore.implementationRegistry().creatorFor(target));
+		assertSame(creator, pcore.implementationRegistry().creatorFor(mine));
+		assertNull(pcore.implementationRegistry().creatorFor(declare(Pcore.create(), "Other")));
+	}
+
+	@Test
+	@DisplayName("refuses registrations when frozen")
+	void frozen() {
+		PcoreImpl pcore = (PcoreImpl)Pcore.create();
+		ObjectType mine = declare(pcore, "Mine");
+		pcore.freeze();
+		assertThrows(IllegalStateException.class, () -> pcore.implementationRegistry().registerImplementation(mine, dispatcher(), o -> new Object[0]));
+	}
+
+	@Test
+	@DisplayName("maps names using registered namespaces")
+	void namespaces() {
+		PcoreImpl pcore = (PcoreImpl)Pcore.create();
+		pcore.implementationRegistry().registerNamespace("My::Types", "com.example.types");
+		assertEquals("com.example.types.Foo", pcore.implementationRegistry().implNameForType("My::Types::Foo"));
+		assertEquals("My::Types::Foo", pcore.implementationRegistry().typeNameForImpl("com.example.types.Foo"));
+		assertNull(pcore.implementationRegistry().implNameForType("Other::Foo"));
+		assertNull(pcore.implementationRegistry().implNameForType("Other::Foo"));
+	}
+}
@@ -0,0 +1,62 @@
+package com.puppet.pcore.impl;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.impl.types.AnyType;
+import com.puppet.pcore.impl.types.TypeReferenceType;
+import com.puppet.pcore.loader.TypedName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A local Pcore scope")
+public class PcoreScopeTest {
+	@Test
+	@DisplayName("sees types of its parent but does not leak its own")
+	public void overlay() {
+		Pcore parent = Pcore.create();
+		parent.typeEvaluator().declareType("Port", "Integer[1,65535]");
+		Pcore scope = parent.withLocalScope();
+		assertNotNull(scope.loader().loadOrNull(TypedName.of("type", "Port")));
+
+		scope.typeEvaluator().declareType("Host", "String[1]");
+		assertNotNull(scope.loader().loadOrNull(TypedName.of("type", "Host")));
+		assertNull(parent.loader().loadOrNull(TypedName.of("type", "Host")));
+	}
+
+	@Test
+	@DisplayName("is reused once recycled")
+	public void recycled() {
+		Pcore parent = Pcore.create();
+		parent.enableTypeResolutionCache(16);
+		Pcore scope = parent.withLocalScope();
+		scope.typeEvaluator().declareType("Host", "String[1]");
+		assertTrue(((AnyType)scope.typeEvaluator().resolveType("Host")).isInstance("example.com"));
+		scope.recycle();
+
+		Pcore again = parent.withLocalScope();
+		assertSame(scope, again);
+		assertNull(again.loader().loadOrNull(TypedName.of("type", "Host")));
+		assertTrue(again.typeEvaluator().resolveType("Host") instanceof TypeReferenceType);
+		assertNotSame(scope, parent.withLocalScope());
+	}
+
+	@Test
+	@DisplayName("can be recycled once")
+	public void recycleTwice() {
+		Pcore parent = Pcore.create();
+		Pcore scope = parent.withLocalScope();
+		scope.recycle();
+		assertThrows(IllegalStateException.class, scope::recycle);
+	}
+
+	@Test
+	@DisplayName("recycling is a no-op on pcores that are not local scopes")
+	public void notAScope() {
+		Pcore pcore = Pcore.create();
+		pcore.typeEvaluator().declareType("Host", "String[1]");
+		pcore.recycle();
+		assertNotNull(pcore.loader().loadOrNull(TypedName.of("type", "Host")));
+	}
+}
@@ -0,0 +1,85 @@
+package com.puppet.pcore.impl;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.Type;
+import com.puppet.pcore.impl.loader.SnapshotLoader;
+import com.puppet.pcore.impl.types.AnyType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A Pcore snapshot")
+public class PcoreSnapshotTest {
+	private static final String[] NAMES = { "Tree", "Port", "Base", "Derived", "Transports" };
+
+	private static Pcore populated() {
+		Pcore pcore = Pcore.create();
+		pcore.typeEvaluator().declareType("Tree", "Hash[String,Variant[String,Tree]]");
+		pcore.typeEvaluator().declareType("Port", "Integer[1,65535]");
+		pcore.typeEvaluator().declareType("Base", "Object[{attributes => {port => Port}}]");
+		pcore.typeEvaluator().declareType("Derived", "Object[{parent => Base, attributes => {tree => Tree, base => Optional[Base]}}]");
+		pcore.typeEvaluator().declareType("Transports", "TypeSet[{pcore_version => '1.0.0', version => '1.0.0'}]");
+		return pcore;
+	}
+
+	private static Path write(Pcore pcore, Path dir) throws IOException {
+		Path snapshot = dir.resolve("types.snapshot");
+		try(OutputStream out = Files.newOutputStream(snapshot)) {
+			pcore.writeSnapshot(out);
+		}
+		return snapshot;
+	}
+
+	@Test
+	@DisplayName("restores types that are equal to the original ones")
+	void roundTrip(@TempDir Path dir) throws IOException {
+		Pcore original = populated();
+		Pcore booted = Pcore.fromSnapshot(write(original, dir));
+		for(String name : NAMES) {
+			Type expected = original.typeEvaluator().resolveType(name);
+			Type actual = booted.typeEvaluator().resolveType(name);
+			assertEquals(expected, actual, name);
+		}
+		AnyType tree = (AnyType)booted.typeEvaluator().resolveType("Tree");
+		assertTrue(tree.isInstance(singletonMap("a", singletonMap("b", "c"))));
+		assertFalse(tree.isInstance(singletonMap("a", 1)));
+	}
+
+	@Test
+	@DisplayName("is not read until something is looked up")
+	void lazy(@TempDir Path dir) throws IOException {
+		Pcore booted = Pcore.fromSnapshot(write(populated(), dir));
+		SnapshotLoader loader = (SnapshotLoader)booted.loader();
+		assertFalse(loader.isMaterialized());
+		booted.typeEvaluator().resolveType("Port");
+		assertTrue(loader.isMaterialized());
+	}
+
+	@Test
+	@DisplayName("writes the same bytes for the same types")
+	void deterministic() throws IOException {
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		populated().writeSnapshot(first);
+		populated().writeSnapshot(second);
+		assertArrayEquals(first.toByteArray(), second.toByteArray());
+	}
+
+	@Test
+	@DisplayName("rejects files that are not snapshots")
+	void invalid(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("bogus");
+		Files.write(file, "not a snapshot".getBytes());
+		assertThrows(IOException.class, () -> Pcore.fromSnapshot(file));
+	}
+}
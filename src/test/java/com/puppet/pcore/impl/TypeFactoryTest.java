@@ -1,12 +1,14 @@
 package com.puppet.pcore.impl;
 
+import com.puppet.pcore.impl.types.AnyType;
 import com.puppet.pcore.impl.types.IntegerType;
 import com.puppet.pcore.impl.types.StringType;
+import com.puppet.pcore.impl.types.TypeFactory;
 import org.junit.jupiter.api.Test;
 
-import static com.puppet.pcore.impl.types.TypeFactory.integerType;
-import static com.puppet.pcore.impl.types.TypeFactory.stringType;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TypeFactoryTest {
 	@Test
@@ -21,4 +23,21 @@ public class TypeFactoryTest {
 		StringType f = stringType("value");
 		assertEquals(f.value, "value");
 	}
+
+	@Test
+	public void interning() {
+		assertNotSame(hashType(stringType(), integerType(0, 9)), hashType(stringType(), integerType(0, 9)));
+		TypeFactory.setInterning(true);
+		try {
+			AnyType t1 = hashType(stringType(), arrayType(integerType(0, 9)));
+			AnyType t2 = hashType(stringType(), arrayType(integerType(0, 9)));
+			assertSame(t1, t2);
+			assertNotSame(t1, hashType(stringType(), arrayType(integerType(0, 8))));
+			assertNotSame(arrayType(typeReferenceType("Foo")), arrayType(typeReferenceType("Foo")));
+			assertNotSame(tupleType(asList(t1, typeReferenceType("Foo"))), tupleType(asList(t1, typeReferenceType("Foo"))));
+			assertSame(arrayType(t1), arrayType(t2));
+		} finally {
+			TypeFactory.setInterning(false);
+		}
+	}
 }
@@ -0,0 +1,80 @@
+package com.puppet.pcore.impl;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.Type;
+import com.puppet.pcore.impl.types.AnyType;
+import com.puppet.pcore.impl.types.TypeReferenceType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A TypeResolutionCache")
+public class TypeResolutionCacheTest {
+	@Test
+	@DisplayName("answers repeated resolutions of the same string from the cache")
+	public void hits() {
+		Pcore pcore = Pcore.create();
+		pcore.enableTypeResolutionCache(100);
+		TypeResolutionCache cache = pcore.typeResolutionCache();
+		Type first = pcore.typeEvaluator().resolveType("Hash[String,Data]");
+		Type second = pcore.typeEvaluator().resolveType("Hash[String,Data]");
+		assertSame(first, second);
+		assertEquals(hashType(stringType(), dataType()), first);
+		assertEquals(1, cache.misses());
+		assertEquals(1, cache.hits());
+	}
+
+	@Test
+	@DisplayName("ignores results once a new type has been bound")
+	public void invalidates() {
+		Pcore pcore = Pcore.create();
+		pcore.enableTypeResolutionCache(100);
+		assertTrue(pcore.typeEvaluator().resolveType("Foo") instanceof TypeReferenceType);
+		pcore.typeEvaluator().declareType("Foo", "Integer");
+		assertTrue(((AnyType)pcore.typeEvaluator().resolveType("Foo")).isInstance(3L));
+	}
+
+	@Test
+	@DisplayName("keeps results from different scopes apart")
+	public void scopes() {
+		Pcore pcore = Pcore.create();
+		pcore.enableTypeResolutionCache(100);
+		Pcore local = pcore.withLocalScope();
+		assertSame(pcore.typeResolutionCache(), local.typeResolutionCache());
+		local.typeEvaluator().declareType("Foo", "Integer");
+		assertTrue(((AnyType)local.typeEvaluator().resolveType("Foo")).isInstance(3L));
+		assertTrue(pcore.typeEvaluator().resolveType("Foo") instanceof TypeReferenceType);
+	}
+
+	@Test
+	@DisplayName("does not cache mutable values")
+	public void mutable() {
+		Pcore pcore = Pcore.create();
+		pcore.enableTypeResolutionCache(100);
+		List<?> first = (List<?>)pcore.typeEvaluator().resolve("[1, 2]");
+		List<?> second = (List<?>)pcore.typeEvaluator().resolve("[1, 2]");
+		assertEquals(asList(1L, 2L), first);
+		assertNotSame(first, second);
+		assertSame(pcore.typeEvaluator().resolve("'a'"), pcore.typeEvaluator().resolve("'a'"));
+	}
+
+	@Test
+	@DisplayName("evicts entries when full")
+	public void bounded() {
+		Pcore pcore = Pcore.create();
+		pcore.enableTypeResolutionCache(1);
+		TypeResolutionCache cache = pcore.typeResolutionCache();
+		assertEquals(1, cache.capacity());
+		pcore.typeEvaluator().resolveType("String");
+		pcore.typeEvaluator().resolveType("Integer");
+		pcore.typeEvaluator().resolveType("String");
+		assertEquals(3, cache.misses());
+		assertEquals(0, cache.hits());
+	}
+}
@@ -0,0 +1,151 @@
+package com.puppet.pcore.impl.serialization;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.serialization.Deserializer;
+import com.puppet.pcore.serialization.SerializationFactory;
+import com.puppet.pcore.serialization.Serializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A ByteBufferOutput")
+public class ByteBufferOutputTest {
+	private static final String[] FORMATS = { SerializationFactory.MSGPACK, SerializationFactory.JSON };
+
+	private final Pcore pcore = Pcore.create();
+
+	private static Object message(int idx) {
+		char[] large = new char[3000];
+		Arrays.fill(large, (char)('a' + idx));
+		return asMap(
+				"name", "message " + idx,
+				"repeated", asList("same", "same", "same"),
+				"large", new String(large),
+				"version", Version.create(1, idx, 0),
+				"binary", new Binary(new byte[] { 1, 2, (byte)idx }));
+	}
+
+	private byte[] streamed(String format, Object value) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Serializer serializer = pcore.serializationFactory(format).forOutput(pcore, emptyMap(), out);
+		serializer.write(value);
+		serializer.finish();
+		return out.toByteArray();
+	}
+
+	private byte[] buffered(String format, ByteBufferOutput out, Object value) throws IOException {
+		Serializer serializer = ((SerializationFactoryImpl)pcore.serializationFactory(format)).forOutput(pcore, emptyMap(), out);
+		serializer.write(value);
+		serializer.finish();
+		return contentOf(out);
+	}
+
+	private static byte[] contentOf(ByteBufferOutput out) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		assertEquals(out.size(), out.writeTo(Channels.newChannel(bytes)));
+		return bytes.toByteArray();
+	}
+
+	private Object read(String format, byte[] bytes) throws IOException {
+		Deserializer deserializer = pcore.serializationFactory(format).forInput(pcore, new ByteArrayInputStream(bytes));
+		return deserializer.read();
+	}
+
+	@Test
+	@DisplayName("contains the same bytes as a stream")
+	public void sameAsStream() throws IOException {
+		for(String format : FORMATS) {
+			byte[] expected = streamed(format, message(1));
+			assertArrayEquals(expected, buffered(format, new ByteBufferOutput(new BufferPool(64, false, 4)), message(1)), format);
+			assertArrayEquals(expected, buffered(format, new ByteBufferOutput(new BufferPool(64, true, 4)), message(1)), format);
+			assertArrayEquals(expected, buffered(format, new ByteBufferOutput(ByteBuffer.allocate(expected.length)), message(1)), format);
+		}
+	}
+
+	@Test
+	@DisplayName("can be cleared and written again by a reset serializer")
+	public void reuse() throws IOException {
+		for(String format : FORMATS) {
+			ByteBufferOutput out = new ByteBufferOutput(new BufferPool(256, true, 4));
+			Serializer serializer = ((SerializationFactoryImpl)pcore.serializationFactory(format)).forOutput(pcore, emptyMap(), out);
+			for(int idx = 0; idx < 3; ++idx) {
+				serializer.write(message(idx));
+				serializer.finish();
+				byte[] bytes = contentOf(out);
+				assertArrayEquals(streamed(format, message(idx)), bytes, format);
+				assertEquals(message(idx), read(format, bytes), format);
+				out.clear();
+				serializer.reset();
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("writes all buffers to a gathering channel")
+	public void gathering(@TempDir Path dir) throws IOException {
+		ByteBufferOutput out = new ByteBufferOutput(new BufferPool(32, true, 4));
+		byte[] expected = buffered(SerializationFactory.MSGPACK, out, message(2));
+		assertTrue(out.buffers().length > 1);
+
+		Path file = dir.resolve("message");
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			assertEquals(expected.length, out.writeTo(channel));
+		}
+		assertArrayEquals(expected, Files.readAllBytes(file));
+	}
+
+	@Test
+	@DisplayName("throws when supplied buffers are full and there's no pool")
+	public void overflow() {
+		ByteBufferOutput out = new ByteBufferOutput(ByteBuffer.allocate(16));
+		assertThrows(BufferOverflowException.class, () -> buffered(SerializationFactory.MSGPACK, out, message(1)));
+	}
+
+	@Test
+	@DisplayName("takes buffers from the pool when supplied buffers are full")
+	public void overflowToPool() throws IOException {
+		byte[] expected = streamed(SerializationFactory.MSGPACK, message(1));
+		ByteBufferOutput out = new ByteBufferOutput(new BufferPool(64, false, 4), ByteBuffer.allocate(16));
+		assertArrayEquals(expected, buffered(SerializationFactory.MSGPACK, out, message(1)));
+	}
+
+	@Test
+	@DisplayName("keeps one pooled buffer when cleared and gives the rest back")
+	public void pooling() {
+		BufferPool pool = new BufferPool(16, false, 4);
+		ByteBufferOutput out = new ByteBufferOutput(pool);
+		ByteBuffer first = out.writable();
+		out.write(new byte[40], 0, 40);
+		assertEquals(40, out.size());
+		assertEquals(3, out.buffers().length);
+
+		out.clear();
+		assertEquals(0, out.size());
+		assertSame(first, out.writable());
+		assertNotSame(first, pool.acquire());
+		assertNotSame(first, pool.acquire());
+
+		out.release();
+		assertSame(first, pool.acquire());
+	}
+}
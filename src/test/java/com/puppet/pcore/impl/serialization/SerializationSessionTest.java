@@ -0,0 +1,164 @@
+package com.puppet.pcore.impl.serialization;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.impl.serialization.extension.MapStart;
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.serialization.Deserializer;
+import com.puppet.pcore.serialization.Reader;
+import com.puppet.pcore.serialization.SerializationFactory;
+import com.puppet.pcore.serialization.Serializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("Serialization sessions")
+public class SerializationSessionTest {
+	private static final String[] FORMATS = { SerializationFactory.MSGPACK, SerializationFactory.JSON };
+
+	private final Pcore pcore = Pcore.create();
+
+	private static Object message(int idx) {
+		return asMap(
+				"name", "message " + idx,
+				"repeated", asList("same", "same", Version.create(1, 0, 0), Version.create(1, 0, 0)));
+	}
+
+	private byte[] written(SerializationFactory factory, Object value) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Serializer serializer = factory.forOutput(pcore, emptyMap(), out);
+		serializer.write(value);
+		serializer.finish();
+		return out.toByteArray();
+	}
+
+	@Test
+	@DisplayName("reuse serializers released on the same thread")
+	public void serializerReuse() throws IOException {
+		for(String format : FORMATS) {
+			SerializationFactory factory = pcore.serializationFactory(format);
+			Serializer first = null;
+			for(int idx = 0; idx < 3; ++idx) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				Serializer serializer = factory.acquireSerializer(pcore, emptyMap(), out);
+				if(first == null)
+					first = serializer;
+				assertSame(first, serializer, format);
+				serializer.write(message(idx));
+				serializer.finish();
+				factory.release(serializer);
+				assertArrayEquals(written(factory, message(idx)), out.toByteArray(), format);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("reuse deserializers released on the same thread")
+	public void deserializerReuse() throws IOException {
+		for(String format : FORMATS) {
+			SerializationFactory factory = pcore.serializationFactory(format);
+			Deserializer first = null;
+			for(int idx = 0; idx < 3; ++idx) {
+				Deserializer deserializer = factory.acquireDeserializer(pcore, new ByteArrayInputStream(written(factory, message(idx))));
+				if(first == null)
+					first = deserializer;
+				assertSame(first, deserializer, format);
+				assertEquals(message(idx), deserializer.read(), format);
+				factory.release(deserializer);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("don't hand out sessions that are in use or have other options")
+	public void inUse() throws IOException {
+		SerializationFactory factory = pcore.serializationFactory(SerializationFactory.MSGPACK);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Serializer serializer = factory.acquireSerializer(pcore, emptyMap(), out);
+		Serializer other = factory.acquireSerializer(pcore, emptyMap(), out);
+		assertNotSame(serializer, other);
+		factory.release(other);
+		factory.release(serializer);
+		other = factory.acquireSerializer(pcore, singletonMap("tabulate", false), out);
+		assertNotSame(serializer, other);
+		factory.release(other);
+
+		byte[] bytes = written(factory, message(1));
+		Deserializer deserializer = factory.acquireDeserializer(pcore, new ByteArrayInputStream(bytes));
+		Deserializer otherDeserializer = factory.acquireDeserializer(pcore, new ByteArrayInputStream(bytes));
+		assertNotSame(deserializer, otherDeserializer);
+		factory.release(otherDeserializer);
+		factory.release(deserializer);
+	}
+
+	@Test
+	@DisplayName("read consecutive messages from one input when reset in between")
+	public void consecutiveMessages() throws IOException {
+		for(String format : FORMATS) {
+			SerializationFactory factory = pcore.serializationFactory(format);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Serializer serializer = factory.forOutput(pcore, emptyMap(), out);
+			for(int idx = 0; idx < 3; ++idx) {
+				serializer.write(message(idx));
+				serializer.finish();
+				serializer.reset();
+			}
+
+			Deserializer deserializer = factory.forInput(pcore, new ByteArrayInputStream(out.toByteArray()));
+			for(int idx = 0; idx < 3; ++idx) {
+				assertEquals(message(idx), deserializer.read(), format);
+				deserializer.reset();
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("skip the rest of a JSON message when reset")
+	public void skipRest() throws IOException {
+		SerializationFactory factory = pcore.serializationFactory(SerializationFactory.JSON);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Serializer serializer = factory.forOutput(pcore, emptyMap(), out);
+		serializer.write(message(1));
+		serializer.write("rest");
+		serializer.finish();
+		serializer.reset();
+		serializer.write(message(2));
+		serializer.finish();
+
+		Deserializer deserializer = factory.forInput(pcore, new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(message(1), deserializer.read());
+		deserializer.reset();
+		assertEquals(message(2), deserializer.read());
+	}
+
+	@Test
+	@DisplayName("skip the rest of a partially read value when reset")
+	public void skipPartial() throws IOException {
+		for(String format : FORMATS) {
+			SerializationFactory factory = pcore.serializationFactory(format);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Serializer serializer = factory.forOutput(pcore, emptyMap(), out);
+			serializer.write(message(1));
+			serializer.finish();
+			serializer.reset();
+			serializer.write(message(2));
+			serializer.finish();
+
+			Deserializer deserializer = factory.forInput(pcore, new ByteArrayInputStream(out.toByteArray()));
+			Reader reader = deserializer.getReader();
+			assertTrue(reader.read() instanceof MapStart, format);
+			assertEquals("name", reader.read(), format);
+			deserializer.reset();
+			assertEquals(message(2), deserializer.read(), format);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.puppet.pcore.impl.serialization.json;
+
+import com.puppet.pcore.Comment;
+import com.puppet.pcore.impl.serialization.extension.ArrayStart;
+import com.puppet.pcore.serialization.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("The JSON Reader")
+public class JsonUnpackerTest {
+	private static JsonReader readerOn(String json, InputStream rest) throws IOException {
+		return new JsonReader(new JsonUnpacker(new SequenceInputStream(new ByteArrayInputStream(json.getBytes(UTF_8)), rest)));
+	}
+
+	private static InputStream failing() {
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("not yet available");
+			}
+		};
+	}
+
+	@Test
+	@DisplayName("reads values before the rest of the document is available")
+	public void streaming() throws IOException {
+		JsonReader reader = readerOn("[12, 1.5, \"x\", true, null, [33, \"c\"], [16, 2], 3, 4, 123456789012345678901234567890 ", failing());
+		assertEquals(12L, reader.read());
+		assertEquals(1.5, reader.read());
+		assertEquals("x", reader.read());
+		assertEquals(true, reader.read());
+		assertNull(reader.read());
+		assertEquals(new Comment("c"), reader.read());
+		assertEquals(new ArrayStart(2), reader.read());
+		assertEquals(3L, reader.read());
+		assertEquals(4L, reader.read());
+		assertEquals(new BigInteger("123456789012345678901234567890"), reader.read());
+		assertThrows(IOException.class, reader::read);
+	}
+
+	@Test
+	@DisplayName("reads values that have already been parsed")
+	public void chunks() throws IOException {
+		JsonReader reader = new JsonReader(new JsonUnpacker(emptyList()));
+		reader.initialize(asList(12, 1.5F, asList(33, "c")));
+		assertEquals(12L, reader.read());
+		assertEquals(1.5, reader.read());
+		assertEquals(new Comment("c"), reader.read());
+	}
+
+	@Test
+	@DisplayName("rejects invalid extensions")
+	public void invalidExtensions() throws IOException {
+		assertThrows(SerializationException.class, () -> readerOn("[[]]", failing()).read());
+		assertThrows(SerializationException.class, () -> readerOn("[[\"c\"]]", failing()).read());
+		assertThrows(SerializationException.class, () -> readerOn("[[127]]", failing()).read());
+		assertThrows(SerializationException.class, () -> readerOn("{}", new ByteArrayInputStream(new byte[0])));
+	}
+
+	@Test
+	@DisplayName("reports the end of the document")
+	public void eof() throws IOException {
+		JsonReader reader = readerOn("[1]", new ByteArrayInputStream(new byte[0]));
+		assertEquals(1L, reader.read());
+		assertThrows(SerializationException.class, reader::read);
+	}
+}
@@ -0,0 +1,95 @@
+package com.puppet.pcore.impl.serialization.msgpack;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Comment;
+import com.puppet.pcore.impl.serialization.extension.PcoreObjectStart;
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.serialization.Reader;
+import com.puppet.pcore.serialization.Writer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.msgpack.core.MessagePack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("The MsgPack Reader")
+public class BufferInputTest {
+	private static final Object[] VALUES;
+
+	static {
+		char[] large = new char[20000];
+		Arrays.fill(large, 'ö');
+		VALUES = new Object[] {
+				"Blue Öyster Cult", new String(large), new Binary(new byte[] { (byte)139, 12, (byte)233, 5, 42 }),
+				new PcoreObjectStart("My::Test::Object", 10), new PcoreObjectStart("My::Test::Other", 2),
+				new Comment("comment"), Instant.ofEpochSecond(1500000000, 123), 543123456789L, 1.5, true, null,
+				Version.create(1, 2, 3) };
+	}
+
+	private final MsgPackSerializationFactory factory = new MsgPackSerializationFactory();
+
+	private byte[] written() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Writer writer = factory.writerOn(emptyMap(), out);
+		for(Object value : VALUES)
+			writer.write(value);
+		writer.finish();
+		return out.toByteArray();
+	}
+
+	private static void assertReadsAll(Reader reader) throws IOException {
+		for(Object value : VALUES)
+			assertEquals(value, reader.read());
+		assertThrows(EOFException.class, reader::read);
+	}
+
+	@Test
+	@DisplayName("reads heap buffers")
+	public void heapBuffer() throws IOException {
+		byte[] bytes = written();
+		byte[] padded = new byte[bytes.length + 6];
+		System.arraycopy(bytes, 0, padded, 3, bytes.length);
+		ByteBuffer buffer = ByteBuffer.wrap(padded, 3, bytes.length).slice();
+		assertReadsAll(factory.readerOn(buffer));
+		assertEquals(0, buffer.position());
+		assertReadsAll(factory.readerOn(buffer.asReadOnlyBuffer()));
+	}
+
+	@Test
+	@DisplayName("reads direct buffers")
+	public void directBuffer() throws IOException {
+		byte[] bytes = written();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes).flip();
+		assertReadsAll(factory.readerOn(buffer));
+	}
+
+	@Test
+	@DisplayName("reads files by mapping them")
+	public void fileChannel(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("values.msgpack");
+		Files.write(file, written());
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			assertReadsAll(factory.readerOn(channel));
+			assertEquals(0, channel.position());
+
+			// Values that span windows are read too
+			for(long windowSize : new long[] { 1, 7, 4096 })
+				assertReadsAll(new MsgPackReader(new MsgUnpacker(MessagePack.newDefaultUnpacker(new BufferInput(channel, windowSize)))));
+		}
+	}
+}
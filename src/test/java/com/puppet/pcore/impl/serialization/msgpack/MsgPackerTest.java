@@ -0,0 +1,58 @@
+package com.puppet.pcore.impl.serialization.msgpack;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SuppressWarnings("unused")
+@DisplayName("The MsgPacker")
+public class MsgPackerTest {
+	@Test
+	@DisplayName("computes the encoded size of integers")
+	public void intSize() throws IOException {
+		long[] values = {
+				Long.MIN_VALUE, Integer.MIN_VALUE - 1L, Integer.MIN_VALUE, Short.MIN_VALUE - 1, Short.MIN_VALUE,
+				Byte.MIN_VALUE - 1, Byte.MIN_VALUE, -33, -32, -1, 0, 127, 128, 255, 256, 65535, 65536,
+				Integer.MAX_VALUE, 0xffffffffL, 0x100000000L, Long.MAX_VALUE };
+		MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+		for(long value : values) {
+			packer.clear();
+			packer.packLong(value);
+			packer.flush();
+			assertEquals(packer.getBufferSize(), MsgPacker.intSize(value), Long.toString(value));
+		}
+	}
+
+	@Test
+	@DisplayName("grows the payload buffer to fit large payloads")
+	public void largePayload() throws IOException {
+		StringBuilder bld = new StringBuilder();
+		for(int idx = 0; idx < 5000; ++idx)
+			bld.append("large payload ");
+		String large = bld.toString();
+
+		MessageBufferPacker out = MessagePack.newDefaultBufferPacker();
+		MsgPacker packer = new MsgPacker(out);
+		packer.writeBufferedPayload(ep -> ep.write("small"));
+		packer.writeBufferedPayload(ep -> ep.write(large));
+		packer.writeBufferedPayload(ep -> ep.write("small"));
+		packer.flush();
+
+		MessageBufferPacker expected = MessagePack.newDefaultBufferPacker();
+		for(String s : new String[] { "small", large, "small" }) {
+			MessageBufferPacker payload = MessagePack.newDefaultBufferPacker();
+			payload.packString(s);
+			payload.flush();
+			expected.packExtensionTypeHeader((byte)0, payload.getBufferSize());
+			expected.addPayload(payload.toByteArray());
+		}
+		expected.flush();
+		assertArrayEquals(expected.toByteArray(), out.toByteArray());
+	}
+}
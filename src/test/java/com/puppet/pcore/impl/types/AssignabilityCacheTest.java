@@ -0,0 +1,63 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Pcore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("An AssignabilityCache")
+public class AssignabilityCacheTest extends PcoreTestBase {
+	@Test
+	@DisplayName("answers repeated queries from the cache")
+	public void hits() {
+		// Each pair is checked in a cache of its own since two pairs may hash to the same slot
+		AnyType expected = arrayType(stringType());
+		AnyType actual = arrayType(stringType(1, 10));
+		AssignabilityCache cache = new AssignabilityCache(16);
+		assertTrue(cache.isAssignable(expected, actual));
+		assertTrue(cache.isAssignable(expected, actual));
+		assertEquals(1, cache.misses());
+		assertEquals(1, cache.hits());
+
+		cache = new AssignabilityCache(16);
+		assertFalse(cache.isAssignable(actual, expected));
+		assertFalse(cache.isAssignable(actual, expected));
+		assertEquals(1, cache.misses());
+		assertEquals(1, cache.hits());
+	}
+
+	@Test
+	@DisplayName("does not store results for types that are not resolved")
+	public void unresolved() {
+		AssignabilityCache cache = new AssignabilityCache(16);
+		AnyType expected = variantType(stringType(), typeReferenceType("Integer"));
+		assertFalse(cache.isAssignable(expected, integerType()));
+		assertFalse(cache.isAssignable(expected, integerType()));
+		assertEquals(0, cache.hits());
+
+		expected = expected.resolve(pcore());
+		assertTrue(cache.isAssignable(expected, integerType()));
+		assertTrue(cache.isAssignable(expected, integerType()));
+		assertEquals(1, cache.hits());
+	}
+
+	@Test
+	@DisplayName("rounds its capacity up to a power of two")
+	public void capacity() {
+		assertEquals(64, new AssignabilityCache(33).capacity());
+		assertEquals(1, new AssignabilityCache(1).capacity());
+	}
+
+	@Test
+	@DisplayName("can only be enabled on a frozen Pcore")
+	public void enable() {
+		Pcore pcore = pcore();
+		assertThrows(IllegalStateException.class, () -> pcore.enableAssignabilityCache(128));
+		pcore.freeze();
+		pcore.enableAssignabilityCache(128);
+		assertNotNull(pcore.assignabilityCache());
+	}
+}
@@ -0,0 +1,116 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Default;
+import com.puppet.pcore.Sensitive;
+import com.puppet.pcore.impl.PcoreImpl;
+import com.puppet.pcore.regex.Regexp;
+import com.puppet.pcore.semver.Version;
+import com.puppet.pcore.semver.VersionRange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("The Data validators")
+public class DataValidatorTest extends PcoreTestBase {
+	private static final Object[] VALUES = {
+			null,
+			"a",
+			1L,
+			3,
+			2.5,
+			true,
+			Regexp.compile("x"),
+			Version.create(1, 0, 0),
+			VersionRange.create(">=1.0.0"),
+			Duration.ofSeconds(3),
+			Instant.now(),
+			Default.SINGLETON,
+			Binary.fromBase64("YWJj"),
+			new Sensitive("secret"),
+			integerType(),
+			emptyList(),
+			asList("a", 1L, null),
+			asList("a", Regexp.compile("x")),
+			new LinkedList<>(asList(asList("a"), singletonMap("b", 2.5))),
+			emptyMap(),
+			singletonMap("a", 1L),
+			singletonMap(1L, "a"),
+			singletonMap("a", Version.create(1, 0, 0)),
+			asMap("a", asList(1L, asMap("b", asList("c", null)))),
+			asMap("a", asList(1L, asMap("b", asList("c", Default.SINGLETON)))),
+			asMap("a", asList(1L, asMap(2L, "c"))),
+	};
+
+	private void assertSameAsAlias(AnyType builtin, AnyType declared) {
+		for(Object value : VALUES)
+			assertEquals(declared.isInstance(value), builtin.isInstance(value), () -> builtin + " with " + value);
+	}
+
+	@Test
+	@DisplayName("produce the same result as the generic alias check")
+	public void sameAsAlias() {
+		declareType("MyData", "Variant[ScalarData,Undef,Array[MyData],Hash[String,MyData]]");
+		declareType("MyRichDataKey", "Variant[String,Numeric]");
+		declareType("MyRichData",
+				"Variant[Scalar,SemVerRange,Binary,Sensitive,Type,TypeSet,Default,Undef,Hash[MyRichDataKey,MyRichData],Array[MyRichData]]");
+		assertSameAsAlias(dataType(), resolveType("MyData"));
+		assertSameAsAlias(((PcoreImpl)pcore()).richDataKey, resolveType("MyRichDataKey"));
+		assertSameAsAlias(richDataType(), resolveType("MyRichData"));
+	}
+
+	@Test
+	@DisplayName("are used when the built in aliases are nested in other types")
+	public void nested() {
+		AnyType type = resolveType("Hash[String,Array[Data]]");
+		assertTrue(type.isInstance(singletonMap("a", asList(asMap("b", asList(1L))))));
+		assertFalse(type.isInstance(singletonMap("a", asList(asMap("b", asList(Regexp.compile("x")))))));
+	}
+
+	@Test
+	@DisplayName("do not grow the stack for deeply nested values")
+	public void deepValue() {
+		Map<String,Object> value = new HashMap<>();
+		Map<String,Object> leaf = value;
+		for(int idx = 0; idx < 100000; ++idx) {
+			Map<String,Object> next = new HashMap<>();
+			leaf.put("a", asList(1L, next));
+			leaf = next;
+		}
+		leaf.put("b", "c");
+		assertTrue(dataType().isInstance(value));
+		assertTrue(richDataType().isInstance(value));
+		leaf.put("b", Regexp.compile("c"));
+		assertFalse(dataType().isInstance(value));
+		assertTrue(richDataType().isInstance(value));
+		leaf.put("b", new Object());
+		assertFalse(richDataType().isInstance(value));
+	}
+
+	@Test
+	@DisplayName("reject values that contain themselves")
+	public void selfContaining() {
+		List<Object> value = new ArrayList<>();
+		value.add("a");
+		value.add(singletonMap("b", value));
+		assertFalse(dataType().isInstance(value));
+		assertFalse(richDataType().isInstance(value));
+
+		List<Object> shared = asList("a", "b");
+		assertTrue(dataType().isInstance(asList(shared, shared, singletonMap("c", shared))));
+	}
+}
@@ -0,0 +1,70 @@
+package com.puppet.pcore.impl.types;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("Parallel inferSet")
+public class ParallelInferrerTest extends PcoreTestBase {
+	private static Map<String,Object> facts(int width, int depth) {
+		Map<String,Object> facts = new LinkedHashMap<>();
+		for(int idx = 0; idx < width; ++idx) {
+			Object value;
+			switch(idx % 4) {
+			case 0:
+				value = depth > 0 ? facts(width / 4, depth - 1) : "leaf" + idx;
+				break;
+			case 1:
+				List<Object> list = new ArrayList<>();
+				for(int ldx = 0; ldx < width; ++ldx)
+					list.add(ldx % 3 == 0 ? ldx : "v" + ldx);
+				value = list;
+				break;
+			case 2:
+				value = Collections.singletonMap(idx, asList(1.5, true, null));
+				break;
+			default:
+				value = (long)idx;
+			}
+			facts.put("fact" + idx, value);
+		}
+		return facts;
+	}
+
+	@Test
+	@DisplayName("produces the same type as a sequential inferSet for wide and deep hashes")
+	public void test1() {
+		Map<String,Object> facts = facts(200, 3);
+		assertEquals(inferSet(facts), parallelInferSet(facts));
+	}
+
+	@Test
+	@DisplayName("produces the same type as a sequential inferSet for small and scalar values")
+	public void test2() {
+		for(Object value : asList("a", 3L, asList(), new LinkedHashMap<>(), asList(1, "b"), Collections.singletonMap(1, 2)))
+			assertEquals(inferSet(value), parallelInferSet(value));
+	}
+
+	@Test
+	@DisplayName("uses the given pool")
+	public void test3() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			List<Object> list = new ArrayList<>(facts(100, 1).values());
+			assertEquals(inferSet(list), parallelInferSet(pool, list));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Pcore;
+import com.puppet.pcore.TypeResolverException;
+import com.puppet.pcore.impl.TypeFormatter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static com.puppet.pcore.test.TestHelper.assertIncludes;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("Parallel TypeSet resolution")
+public class ParallelTypeSetResolutionTest {
+	private static final int SIZE = 60;
+
+	@BeforeEach
+	public void enable() {
+		setParallelTypeSetResolution(10);
+	}
+
+	@AfterEach
+	public void disable() {
+		disableParallelTypeSetResolution();
+	}
+
+	private static String typeSet(String... extraTypes) {
+		StringBuilder bld = new StringBuilder("TypeSet[{version => '1.0.0', pcore_version => '1.0.0', types => {");
+		for(int idx = 0; idx < SIZE; ++idx) {
+			// Parent chains, references across the set, mutually referencing objects, and self referencing aliases
+			bld.append("O").append(idx).append(" => Object[{");
+			if(idx % 10 != 0)
+				bld.append("parent => O").append(idx - 1).append(',');
+			bld.append("attributes => { a").append(idx).append(" => Optional[O").append(idx / 10 * 10).append("]");
+			bld.append(", m").append(idx).append(" => Optional[M").append(idx).append("] }}],");
+			bld.append("M").append(idx).append(" => Object[{attributes => { other => Optional[M").append(idx ^ 1).append("] }}],");
+			bld.append("A").append(idx).append(" => Variant[String, Array[A").append(idx).append("], FirstSet::O").append(idx).append("],");
+		}
+		for(String extra : extraTypes)
+			bld.append(extra).append(',');
+		return bld.append("}}]").toString();
+	}
+
+	private static String expanded(AnyType type) {
+		StringBuilder bld = new StringBuilder();
+		new TypeFormatter(bld, true).format(type);
+		return bld.toString();
+	}
+
+	private static TypeSetType resolve(String typeSet) {
+		Pcore pcore = Pcore.create();
+		pcore.typeEvaluator().declareType("FirstSet", typeSet);
+		return (TypeSetType)pcore.typeEvaluator().resolveType("FirstSet");
+	}
+
+	@Test
+	@DisplayName("resolves the same types as a sequential resolution")
+	public void sameAsSequential() {
+		TypeSetType parallel = resolve(typeSet());
+		disableParallelTypeSetResolution();
+		TypeSetType sequential = resolve(typeSet());
+		for(int idx = 0; idx < SIZE; ++idx) {
+			for(String prefix : new String[] { "O", "M", "A" }) {
+				AnyType p = parallel.get(prefix + idx);
+				AnyType s = sequential.get(prefix + idx);
+				assertEquals(expanded(s), expanded(p), prefix + idx);
+				assertEquals(s.isRecursive(), p.isRecursive(), prefix + idx);
+			}
+		}
+		ObjectType o15 = (ObjectType)parallel.get("O15");
+		assertSame(parallel.get("O10"), ((OptionalType)o15.getAttribute("a15").type).type);
+	}
+
+	@Test
+	@DisplayName("reports the error of the first declared type that fails")
+	public void deterministicError() {
+		String typeSet = typeSet("Loop1 => Loop1", "Loop2 => Loop2", "Loop3 => Loop3");
+		for(int idx = 0; idx < 10; ++idx) {
+			Throwable ex = assertThrows(TypeResolverException.class, () -> resolve(typeSet));
+			assertIncludes("'FirstSet::Loop1'", ex.getMessage());
+		}
+	}
+
+	@Test
+	@DisplayName("is not used for small TypeSets")
+	public void threshold() {
+		assertNull(ParallelTypeSetResolver.forSize(9));
+		assertNotNull(ParallelTypeSetResolver.forSize(10));
+		assertEquals(10, parallelTypeSetResolutionThreshold());
+		assertThrows(IllegalArgumentException.class, () -> setParallelTypeSetResolution(0));
+	}
+}
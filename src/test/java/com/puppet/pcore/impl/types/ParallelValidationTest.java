@@ -0,0 +1,89 @@
+package com.puppet.pcore.impl.types;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("Parallel validation")
+public class ParallelValidationTest extends PcoreTestBase {
+	private static final int SIZE = 100000;
+
+	@BeforeEach
+	public void enable() {
+		setParallelValidation(1000);
+	}
+
+	@AfterEach
+	public void disable() {
+		disableParallelValidation();
+	}
+
+	private static List<Object> integers() {
+		List<Object> list = new ArrayList<>(SIZE);
+		for(long idx = 0; idx < SIZE; ++idx)
+			list.add(idx);
+		return list;
+	}
+
+	@Test
+	@DisplayName("validates large arrays")
+	public void arrays() {
+		AnyType type = resolveType("Array[Integer]");
+		List<Object> value = integers();
+		assertTrue(type.isInstance(value));
+		assertTrue(type.isInstance(new LinkedList<>(value)));
+		value.set(SIZE / 2, "x");
+		assertFalse(type.isInstance(value));
+		value.set(SIZE / 2, 1L);
+		value.set(SIZE - 1, null);
+		assertFalse(type.isInstance(value));
+		assertFalse(type.isInstance(new LinkedList<>(value)));
+	}
+
+	@Test
+	@DisplayName("validates large hashes")
+	public void hashes() {
+		AnyType type = resolveType("Hash[String,Data]");
+		Map<Object,Object> value = new HashMap<>();
+		for(long idx = 0; idx < SIZE; ++idx)
+			value.put("k" + idx, idx);
+		assertTrue(type.isInstance(value));
+		value.put(3L, 3L);
+		assertFalse(type.isInstance(value));
+		value.remove(3L);
+		value.put("k3", new Object());
+		assertFalse(type.isInstance(value));
+	}
+
+	@Test
+	@DisplayName("validates large tuples")
+	public void tuples() {
+		AnyType type = resolveType("Tuple[String,Integer,0,default]");
+		List<Object> value = integers();
+		value.set(0, "a");
+		assertTrue(type.isInstance(value));
+		value.set(1, "b");
+		assertFalse(type.isInstance(value));
+	}
+
+	@Test
+	@DisplayName("can be disabled")
+	public void disabled() {
+		assertEquals(1000, parallelValidationThreshold());
+		disableParallelValidation();
+		assertEquals(0, parallelValidationThreshold());
+		assertTrue(resolveType("Array[Integer]").isInstance(integers()));
+		assertThrows(IllegalArgumentException.class, () -> setParallelValidation(0));
+	}
+}
@@ -0,0 +1,106 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.impl.types.ModelObject.RecursionGuard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.puppet.pcore.impl.types.ModelObject.RecursionGuard.*;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A RecursionGuard")
+public class RecursionGuardTest extends PcoreTestBase {
+
+	@Test
+	@DisplayName("flags recursion in 'this' and restores the state on exit")
+	public void test1() {
+		RecursionGuard guard = new RecursionGuard();
+		Object a = new Object();
+		int outer = guard.enterThis(a);
+		assertEquals(NO_SELF_RECURSION, guard.state());
+		int inner = guard.enterThis(a);
+		assertEquals(SELF_RECURSION_IN_THIS, guard.state());
+		assertTrue(guard.recursiveThis(a));
+		assertFalse(guard.recursiveThat(a));
+		guard.exitThis(a, inner);
+		assertEquals(NO_SELF_RECURSION, guard.state());
+		guard.exitThis(a, outer);
+		guard.enterThis(a);
+		assertEquals(NO_SELF_RECURSION, guard.state());
+	}
+
+	@Test
+	@DisplayName("reports recursion in both when 'this' and 'that' recurse")
+	public void test2() {
+		RecursionGuard guard = new RecursionGuard();
+		Object a = new Object();
+		Object b = new Object();
+		guard.enterThat(b);
+		guard.enterThis(a);
+		int thatToken = guard.enterThat(b);
+		int thisToken = guard.enterThis(a);
+		assertEquals(SELF_RECURSION_IN_BOTH, guard.state());
+		guard.exitThis(a, thisToken);
+		assertEquals(SELF_RECURSION_IN_THAT, guard.state());
+		guard.exitThat(b, thatToken);
+		assertEquals(NO_SELF_RECURSION, guard.state());
+	}
+
+	@Test
+	@DisplayName("tracks more objects than fit in its inline storage")
+	public void test3() {
+		RecursionGuard guard = new RecursionGuard();
+		Object[] objects = new Object[20];
+		int[] tokens = new int[objects.length];
+		for(int idx = 0; idx < objects.length; ++idx) {
+			objects[idx] = new Object();
+			tokens[idx] = guard.enterThis(objects[idx]);
+		}
+		for(Object object : objects) {
+			int token = guard.enterThis(object);
+			assertEquals(SELF_RECURSION_IN_THIS, guard.state());
+			assertTrue(guard.recursiveThis(object));
+			guard.exitThis(object, token);
+		}
+		for(int idx = objects.length; --idx >= 0; )
+			guard.exitThis(objects[idx], tokens[idx]);
+		assertEquals(NO_SELF_RECURSION, guard.state());
+	}
+
+	@Test
+	@DisplayName("is handed out empty after release and never twice on the same thread")
+	public void test4() {
+		RecursionGuard guard = RecursionGuard.acquire();
+		Object a = new Object();
+		guard.enterThis(a);
+		guard.enterThis(a);
+		assertNotSame(guard, RecursionGuard.acquire());
+		guard.release();
+
+		RecursionGuard again = RecursionGuard.acquire();
+		assertSame(guard, again);
+		assertEquals(NO_SELF_RECURSION, again.state());
+		assertFalse(again.recursiveThis(a));
+		again.release();
+	}
+
+	@Test
+	@DisplayName("validates deeply nested values against a self referencing alias")
+	public void test5() {
+		declareType("Tree", "Hash[String,Variant[Integer,Tree]]");
+		AnyType tree = resolveType("Tree");
+		Map<String,Object> value = singletonMap("leaf", 1);
+		for(int idx = 0; idx < 50; ++idx) {
+			Map<String,Object> node = new HashMap<>();
+			node.put("n" + idx, value);
+			value = node;
+		}
+		assertTrue(tree.isInstance(value));
+		assertFalse(tree.isInstance(singletonMap("a", singletonMap("b", "c"))));
+		assertTrue(tree.isInstance(value));
+	}
+}
@@ -0,0 +1,68 @@
+package com.puppet.pcore.impl.types;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A Struct Type")
+public class StructTypeTest extends PcoreTestBase {
+	@Test
+	@DisplayName("accepts hashes with all required keys and matching values")
+	public void instances() {
+		AnyType type = resolveType("Struct[{a => Integer, Optional[b] => String, c => Optional[String]}]");
+		assertTrue(type.isInstance(asMap("a", 1L, "c", "x")));
+		assertTrue(type.isInstance(asMap("a", 1L, "b", "y", "c", null)));
+		assertFalse(type.isInstance(asMap("a", 1L)));
+		assertFalse(type.isInstance(asMap("a", 1L, "c", "x", "d", "z")));
+		assertFalse(type.isInstance(asMap("a", 1L, "b", 2L, "c", "x")));
+		assertFalse(type.isInstance(asMap("a", 1L, "b", null, "c", "x")));
+		assertFalse(type.isInstance(asMap("b", "y", "c", "x")));
+		assertFalse(type.isInstance(asMap("a", 1L, 3L, "x")));
+		assertFalse(type.isInstance(emptyMap()));
+	}
+
+	@Test
+	@DisplayName("accepts only the empty hash when it has no elements")
+	public void empty() {
+		AnyType type = resolveType("Struct[{}]");
+		assertTrue(type.isInstance(emptyMap()));
+		assertFalse(type.isInstance(singletonMap("a", 1L)));
+	}
+
+	@Test
+	@DisplayName("handles structs with a large number of elements")
+	public void wide() {
+		List<StructElement> elements = new ArrayList<>();
+		Map<String,Object> value = new HashMap<>();
+		for(int idx = 0; idx < 300; ++idx) {
+			String name = "k" + idx;
+			elements.add(idx % 3 == 0 ? structElement(optionalType(name), integerType()) : structElement(name, integerType()));
+			if(idx % 3 != 0 || idx % 2 == 0)
+				value.put(name, (long)idx);
+		}
+		StructType type = structType(elements);
+		assertTrue(type.isInstance(value));
+		assertEquals(type.isInstance(value), type.typeChecker().isInstance(value));
+
+		value.remove("k1");
+		assertFalse(type.isInstance(value));
+		value.put("k1", 1L);
+		value.put("k3", "not an integer");
+		assertFalse(type.isInstance(value));
+		value.remove("k3");
+		assertTrue(type.isInstance(value));
+		value.put("k300", 1L);
+		assertFalse(type.isInstance(value));
+	}
+}
@@ -3,7 +3,13 @@ package com.puppet.pcore.impl.types;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SuppressWarnings("unused")
@@ -14,4 +20,38 @@ public class TypeCalculatorTest {
 	void inferRuntime() {
 		assertEquals(runtimeType("java", getClass().getName()), infer(this));
 	}
+
+	@Test
+	@DisplayName("infers the common type of all elements when no sample size is given")
+	void inferAll() {
+		assertEquals(arrayType(integerType(1, 3), integerType(3, 3)), infer(asList(1, 2, 3)));
+		assertEquals(arrayType(anyType(), integerType(3, 3)), infer(asList(1, this, "a")));
+	}
+
+	@Test
+	@DisplayName("infers the element type from a sample but keeps the exact size")
+	void inferSampled() {
+		List<Object> list = new ArrayList<>();
+		for(int idx = 0; idx < 1000; ++idx)
+			list.add(idx);
+		assertEquals(arrayType(integerType(0, 900), integerType(1000, 1000)), infer(list, 10));
+	}
+
+	@Test
+	@DisplayName("infers a sampled type for large collections in inferSet")
+	void inferSetSampled() {
+		Map<String,Object> map = new LinkedHashMap<>();
+		map.put("small", asList(1, "a"));
+		map.put("large", asList(1, 2, 3, 4, 5));
+		AnyType type = inferSet(map, 3);
+		assertEquals(structType(asList(
+				new StructElement(stringType("small"), tupleType(asList(integerType(1, 1), stringType("a")))),
+				new StructElement(stringType("large"), arrayType(integerType(1, 4), integerType(5, 5))))), type);
+	}
+
+	@Test
+	@DisplayName("rejects a sample size less than 1")
+	void inferBadSampleSize() {
+		assertThrows(IllegalArgumentException.class, () -> infer(asList(1, 2), 0));
+	}
 }
@@ -0,0 +1,110 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Sensitive;
+import com.puppet.pcore.regex.Regexp;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.puppet.pcore.impl.Helpers.asList;
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static com.puppet.pcore.impl.types.TypeFactory.dataType;
+import static com.puppet.pcore.impl.types.TypeFactory.richDataType;
+import static java.util.Collections.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A compiled TypeChecker")
+public class TypeCheckerTest extends PcoreTestBase {
+	private static final Object[] VALUES = {
+			null,
+			"a",
+			"",
+			1L,
+			3,
+			-3L,
+			2.5,
+			true,
+			Regexp.compile("x"),
+			new Sensitive("secret"),
+			new Sensitive(4L),
+			emptyList(),
+			asList("a", "b"),
+			asList("a", 1L),
+			asList(asList("a"), 1L),
+			emptyMap(),
+			singletonMap("a", 1L),
+			singletonMap("a", "b"),
+			singletonMap(1L, "b"),
+			asMap("a", 1L, "b", "c"),
+			asMap("a", 1L, "b", null),
+			asMap("a", singletonMap("b", singletonMap("c", "d"))),
+			asMap("a", singletonMap("b", singletonMap("c", 1L))),
+	};
+
+	private void assertSameAsType(AnyType type) {
+		TypeChecker checker = TypeChecker.compile(type);
+		for(Object value : VALUES)
+			assertEquals(type.isInstance(value), checker.isInstance(value), () -> type + " with " + value);
+	}
+
+	@Test
+	@DisplayName("produces the same result as the type for scalars")
+	public void scalars() {
+		for(String typeString : asList(
+				"Any", "Undef", "String", "String[1]", "Integer", "Integer[0,5]", "Float", "Float[2,3]", "Numeric", "Boolean",
+				"Enum[a,b]", "Pattern[/a/]", "Regexp", "Scalar", "ScalarData", "NotUndef", "Optional[Integer]", "Variant[String,Integer]"))
+			assertSameAsType(resolveType(typeString));
+	}
+
+	@Test
+	@DisplayName("produces the same result as the type for collections")
+	public void collections() {
+		for(String typeString : asList(
+				"Array", "Array[String]", "Array[Variant[Array[String],Integer]]", "Array[String,1,1]", "Hash",
+				"Hash[String,Integer]", "Hash[Integer,String]", "Tuple[String,Integer]", "Tuple[String,2,2]",
+				"Struct[{a => Integer}]", "Struct[{a => Integer, Optional[b] => String}]", "Struct[{a => Integer, b => Optional[String]}]",
+				"Sensitive[String]", "Sensitive", "Collection[1]"))
+			assertSameAsType(resolveType(typeString));
+	}
+
+	@Test
+	@DisplayName("produces the same result as the type for aliases")
+	public void aliases() {
+		declareType("Tree", "Hash[String,Variant[String,Tree]]");
+		declareType("X", "Variant[Y,Integer]");
+		declareType("Y", "Variant[X,String]");
+		declareType("Bar", "Variant[Foo,Integer]");
+		declareType("Foo", "Array[Variant[Bar,String]]");
+		for(String typeString : asList("Tree", "X", "Y", "Foo", "Bar"))
+			assertSameAsType(resolveType(typeString));
+		assertSameAsType((AnyType)dataType());
+		assertSameAsType((AnyType)richDataType());
+	}
+
+	@Test
+	@DisplayName("delegates values that are nested too deep")
+	public void deepValue() {
+		List<Object> value = new ArrayList<>();
+		List<Object> leaf = value;
+		for(int idx = 0; idx < TypeChecker.MAX_DEPTH + 8; ++idx) {
+			List<Object> next = new ArrayList<>();
+			leaf.add(next);
+			leaf = next;
+		}
+		leaf.add("a");
+		AnyType data = (AnyType)dataType();
+		assertTrue(data.typeChecker().isInstance(value));
+		leaf.set(0, Regexp.compile("a"));
+		assertFalse(data.typeChecker().isInstance(value));
+	}
+
+	@Test
+	@DisplayName("is cached on the type")
+	public void cached() {
+		AnyType type = resolveType("Array[String]");
+		assertSame(type.typeChecker(), type.typeChecker());
+	}
+}
@@ -7,6 +7,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.puppet.pcore.test.TestHelper.assertIncludes;
 import static com.puppet.pcore.test.TestHelper.assertMatches;
@@ -354,6 +359,70 @@ public class TypeSetTypeTest extends PcoreTestBase {
 		}
 	}
 
+	@Nested
+	@DisplayName("when resolving types lazily")
+	public class LazyTypes {
+		@Test
+		@DisplayName("does not resolve types that are not accessed")
+		public void unaccessed() {
+			pcore().enableLazyTypeSets();
+			declareTypeSet("version => '1.0.0', pcore_version => '1.0.0', types => { Loop => Loop, Real => Float }");
+			TypeSetType ts = resolveTypeSet();
+			assertTrue(ts.get("Real").resolvedType() instanceof FloatType);
+			assertThrows(TypeResolverException.class, () -> ts.get("Loop"));
+		}
+
+		@Test
+		@DisplayName("resolves types that are found by qualified name in the scope of the TypeSet")
+		public void qualifiedName() {
+			pcore().enableLazyTypeSets();
+			declareTypeSet("version => '1.0.0', pcore_version => '1.0.0', " +
+					"types => {" +
+					"  Real => Float," +
+					"  Complex => Object[{ attributes => { real => Real, imaginary => Real } }]" +
+					"}");
+			resolveTypeSet();
+			AnyType complex = resolveType("FirstSet::Complex");
+			assertTrue(complex instanceof ObjectType);
+			assertTrue(((ObjectType)complex).getAttribute("real").type.resolvedType() instanceof FloatType);
+			assertSame(complex, resolveTypeSet().get("complex"));
+		}
+
+		@Test
+		@DisplayName("resolves self referencing aliases")
+		public void selfRefAlias() {
+			pcore().enableLazyTypeSets();
+			declareTypeSet("version => '1.0.0', pcore_version => '1.0.0', types => { Tree => Hash[String,Variant[String,Tree]] }");
+			AnyType treeType = resolveTypeSet().get("Tree");
+			assertTrue(treeType.isRecursive());
+			assertTrue(((VariantType)((HashType)treeType.resolvedType()).type).types.contains(treeType));
+		}
+
+		@Test
+		@DisplayName("yields the same resolved type to concurrent lookups")
+		public void concurrent() throws Exception {
+			pcore().enableLazyTypeSets();
+			declareTypeSet("version => '1.0.0', pcore_version => '1.0.0', " +
+					"types => {" +
+					"  Real => Float," +
+					"  Complex => Object[{ attributes => { real => Real, imaginary => Real } }]" +
+					"}");
+			TypeSetType ts = resolveTypeSet();
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			try {
+				List<Future<AnyType>> results = new ArrayList<>();
+				for(int idx = 0; idx < 16; ++idx)
+					results.add(executor.submit(() -> ts.get("Complex")));
+				AnyType first = results.get(0).get();
+				for(Future<AnyType> result : results)
+					assertSame(first, result.get());
+				assertTrue(((ObjectType)first).getAttribute("imaginary").type.resolvedType() instanceof FloatType);
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
 	TypeSetType declareTypeSet(String typeSetHash) {
 		return declareTypeSet("FirstSet", typeSetHash, RUNTIME_NAME_AUTHORITY);
 	}
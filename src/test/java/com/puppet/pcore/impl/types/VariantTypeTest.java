@@ -0,0 +1,94 @@
+package com.puppet.pcore.impl.types;
+
+import com.puppet.pcore.Binary;
+import com.puppet.pcore.Default;
+import com.puppet.pcore.Sensitive;
+import com.puppet.pcore.regex.Regexp;
+import com.puppet.pcore.semver.Version;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.puppet.pcore.impl.Helpers.asMap;
+import static com.puppet.pcore.impl.types.TypeFactory.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("unused")
+@DisplayName("A Variant Type")
+public class VariantTypeTest extends PcoreTestBase {
+	private static final Object[] VALUES = {
+			null,
+			"a",
+			1L,
+			3,
+			2.5,
+			true,
+			Regexp.compile("x"),
+			Version.create(1, 0, 0),
+			Duration.ofSeconds(3),
+			Instant.now(),
+			Default.SINGLETON,
+			Binary.fromBase64("YWJj"),
+			new Sensitive("secret"),
+			emptyList(),
+			asList("a", 1L),
+			singletonMap("a", 1L),
+			asMap("a", Regexp.compile("x")),
+			integerType(),
+	};
+
+	private static boolean linearIsInstance(VariantType variant, Object value) {
+		for(AnyType type : variant.types)
+			if(type.isInstance(value))
+				return true;
+		return false;
+	}
+
+	private void assertSameAsLinear(AnyType type) {
+		assertTrue(type instanceof VariantType, () -> type + " is not a variant");
+		VariantType variant = (VariantType)type;
+		for(Object value : VALUES)
+			assertEquals(linearIsInstance(variant, value), variant.isInstance(value), () -> variant + " with " + value);
+	}
+
+	@Test
+	@DisplayName("produces the same instance checks as a linear scan of its members")
+	public void sameAsLinear() {
+		for(String typeString : asList(
+				"Variant[String,Integer,Float,Boolean]",
+				"Variant[Enum[a],Pattern[/b/],Integer[0,2],Undef,Array[String]]",
+				"Variant[Hash[String,Integer],Struct[{a => Integer}],Tuple[String,Integer],Sensitive[String]]",
+				"Variant[Optional[Integer],NotUndef[String],Regexp,SemVer,Timespan,Timestamp]",
+				"Variant[Default,Binary,Type[Integer],Any]",
+				"Variant[Scalar,ScalarData,Numeric,Collection]"))
+			assertSameAsLinear(resolveType(typeString));
+		assertSameAsLinear(((AnyType)dataType()).resolvedType());
+		assertSameAsLinear(((AnyType)richDataType()).resolvedType());
+	}
+
+	@Test
+	@DisplayName("only considers members that can match the class of the value")
+	public void candidates() {
+		VariantType variant = (VariantType)resolveType("Variant[String,Integer,Array[String],Hash[String,String],Undef]");
+		assertEquals(asList(stringType()), asList(variant.candidates("a")));
+		assertEquals(asList(integerType()), asList(variant.candidates(3L)));
+		assertEquals(asList(undefType()), asList(variant.candidates(null)));
+		assertEquals(0, variant.candidates(2.5).length);
+		assertSame(variant.candidates("b"), variant.candidates("a"));
+	}
+
+	@Test
+	@DisplayName("keeps recursive aliases as candidates")
+	public void recursiveAlias() {
+		declareType("Tree", "Variant[String,Integer,Boolean,Array[Tree]]");
+		VariantType variant = (VariantType)((AnyType)resolveType("Tree")).resolvedType();
+		assertEquals(1, variant.candidates(asList(asList("a"))).length);
+		assertTrue(variant.isInstance(asList(asList("a"), 1L)));
+		assertFalse(variant.isInstance(asList(asList(2.5))));
+	}
+}
@@ -0,0 +1,143 @@
+package com.puppet.pcore.loader;
+
+import com.puppet.pcore.TypeRedefinedException;
+import com.puppet.pcore.impl.loader.BasicLoader;
+import com.puppet.pcore.impl.loader.ParentedLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParentedLoader")
+public class ParentedLoaderTest {
+	@Test
+	@DisplayName("finds objects that are bound in the parent after a failed lookup")
+	void negativeLookupInvalidated() {
+		BasicLoader parent = new BasicLoader();
+		ParentedLoader child = new ParentedLoader(new ParentedLoader(parent));
+		TypedName name = new TypedName("type", "Foo");
+		assertNull(child.loadOrNull(name));
+		parent.bind(name, "foo");
+		assertEquals("foo", child.loadOrNull(name));
+	}
+
+	@Test
+	@DisplayName("finds objects that are bound in itself after a failed lookup")
+	void ownBinding() {
+		ParentedLoader child = new ParentedLoader(new BasicLoader());
+		TypedName name = new TypedName("type", "Foo");
+		assertNull(child.loadOrNull(name));
+		child.bind(name, "foo");
+		assertEquals("foo", child.loadOrNull(name));
+	}
+
+	@Test
+	@DisplayName("refuses to bind a name that is bound in the parent")
+	void redefined() {
+		BasicLoader parent = new BasicLoader();
+		ParentedLoader child = new ParentedLoader(parent);
+		TypedName name = new TypedName("type", "Foo");
+		assertNull(child.loadOrNull(name));
+		parent.bind(name, "foo");
+		assertThrows(TypeRedefinedException.class, () -> child.bind(name, "bar"));
+	}
+
+	@Test
+	@DisplayName("changes generation when something is bound in the chain")
+	void generation() {
+		BasicLoader parent = new BasicLoader();
+		ParentedLoader child = new ParentedLoader(parent);
+		long generation = child.generation();
+		parent.bind(new TypedName("type", "Foo"), "foo");
+		assertNotEquals(generation, child.generation());
+		generation = child.generation();
+		child.bind(new TypedName("type", "Bar"), "bar");
+		assertNotEquals(generation, child.generation());
+	}
+
+	@Test
+	@DisplayName("does not cache lookups in a parent that doesn't track its generation")
+	void unknownGeneration() {
+		BasicLoader delegate = new BasicLoader();
+		Loader parent = new Loader() {
+			@Override
+			public void bind(String type, String name, Object toBeBound) {
+				delegate.bind(type, name, toBeBound);
+			}
+
+			@Override
+			public void bind(TypedName typedName, Object toBeBound) {
+				delegate.bind(typedName, toBeBound);
+			}
+
+			@Override
+			public void freeze() {
+				delegate.freeze();
+			}
+
+			@Override
+			public URI getNameAuthority() {
+				return delegate.getNameAuthority();
+			}
+
+			@Override
+			public Object load(TypedName name) {
+				return delegate.load(name);
+			}
+
+			@Override
+			public Object loadOrNull(TypedName name) {
+				return delegate.loadOrNull(name);
+			}
+		};
+		ParentedLoader child = new ParentedLoader(parent);
+		assertEquals(Loader.UNKNOWN_GENERATION, child.generation());
+		TypedName name = new TypedName("type", "Foo");
+		assertNull(child.loadOrNull(name));
+		delegate.bind(name, "foo");
+		assertEquals("foo", child.loadOrNull(name));
+	}
+
+	@Test
+	@DisplayName("can be used by many threads while the parent is being populated")
+	void concurrent() throws Exception {
+		BasicLoader parent = new BasicLoader();
+		ParentedLoader child = new ParentedLoader(parent);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for(int t = 0; t < 8; ++t) {
+				int offset = t;
+				futures.add(executor.submit(() -> {
+					for(int idx = offset; idx < 2000; idx += 8) {
+						TypedName name = new TypedName("type", "T" + idx);
+						child.loadOrNull(name);
+						parent.bind(name, idx);
+						assertEquals(idx, child.loadOrNull(name));
+					}
+				}));
+			}
+			for(Future<?> future : futures)
+				future.get();
+		} finally {
+			executor.shutdown();
+		}
+		for(int idx = 0; idx < 2000; ++idx)
+			assertEquals(idx, child.loadOrNull(new TypedName("type", "T" + idx)));
+	}
+
+	@Test
+	@DisplayName("cannot bind once frozen")
+	void frozen() {
+		BasicLoader loader = new BasicLoader();
+		loader.freeze();
+		assertThrows(IllegalStateException.class, () -> loader.bind(new TypedName("type", "Foo"), "foo"));
+	}
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import static com.puppet.pcore.impl.Constants.RUNTIME_NAME_AUTHORITY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("TypedName")
@@ -59,4 +61,22 @@ public class TypedNameTest {
 	void caseInsensitiveHash() {
 		assertTrue(new TypedName("type", "A::B").hashCode() == new TypedName("type", "a::b").hashCode());
 	}
+
+	@Test
+	@DisplayName("equals and hash ignore case in all parts")
+	void caseInsensitiveParts() {
+		TypedName a = new TypedName("type", "Foo::Bar");
+		TypedName b = new TypedName("TYPE", "foo::BAR");
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, new TypedName("type", "Foo::Baz"));
+	}
+
+	@Test
+	@DisplayName("of() returns pooled instances")
+	void pooled() {
+		TypedName tn = TypedName.of("type", "Foo::Bar");
+		assertSame(tn, TypedName.of("type", "Foo::Bar", RUNTIME_NAME_AUTHORITY));
+		assertEquals(new TypedName("type", "::Foo::Bar"), tn);
+	}
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -327,4 +328,50 @@ public class RegexpTest {
 			assertEquals("b", m.group(1));
 		}
 	}
+
+	@Nested
+	@DisplayName("Regexp sets")
+	public class RegexpSets {
+		@Test
+		@DisplayName("combine plain regexps into one alternation")
+		public void testCombined() {
+			RegexpSet set = new RegexpSet(asList(Regexp.compile("^web\\d+$"), Regexp.compile("db"), Regexp.compile("(?i)cache")));
+			assertTrue(set.isCombined());
+			assertTrue(set.find("web12"));
+			assertTrue(set.find("xdbx"));
+			assertTrue(set.find("CACHE01"));
+			assertFalse(set.find("web12x"));
+			assertFalse(set.find("DB"));
+			assertFalse(set.find("åäö"));
+		}
+
+		@Test
+		@DisplayName("scope inline options to each regexp")
+		public void testScopedOptions() {
+			RegexpSet set = new RegexpSet(asList(Regexp.compile("(?i)a"), Regexp.compile("b")));
+			assertTrue(set.find("A"));
+			assertFalse(set.find("B"));
+		}
+
+		@Test
+		@DisplayName("use each regexp on its own when a back reference is present")
+		public void testBackReference() {
+			RegexpSet set = new RegexpSet(asList(Regexp.compile("(a)x"), Regexp.compile("(b)\\1")));
+			assertFalse(set.isCombined());
+			assertTrue(set.find("bb"));
+			assertTrue(set.find("ax"));
+			assertFalse(set.find("ba"));
+		}
+
+		@Test
+		@DisplayName("use each regexp on its own when a conditional group is present")
+		public void testConditional() {
+			RegexpSet set = new RegexpSet(asList(Regexp.compile("(x)y"), Regexp.compile("^(a)?(?(1)b|c)$")));
+			assertFalse(set.isCombined());
+			assertTrue(set.find("ab"));
+			assertTrue(set.find("c"));
+			assertFalse(set.find("ac"));
+			assertFalse(set.find("b"));
+		}
+	}
 }